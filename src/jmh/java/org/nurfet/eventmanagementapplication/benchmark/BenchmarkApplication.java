@@ -0,0 +1,123 @@
+package org.nurfet.eventmanagementapplication.benchmark;
+
+import org.nurfet.eventmanagementapplication.EventManagementApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Запуск приложения для бенчмарков на встроенной базе H2 (профиль test) или, для кода,
+ * рассчитанного на PostgreSQL, на базе в контейнере, и заполнение базы синтетическими данными.
+ * Данные зависят только от {@link #SEED}, поэтому совпадают между запусками и версиями.
+ */
+final class BenchmarkApplication {
+
+    static final long SEED = 20240601L;
+
+    /**
+     * Начало расписания: бронирования должны быть в будущем, иначе индекс в памяти их не загрузит.
+     */
+    static final LocalDateTime SCHEDULE_START = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0)
+            .withSecond(0).withNano(0);
+
+    private static final int INSERT_BATCH_SIZE = 1_000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+        return run(new SpringApplicationBuilder(EventManagementApplication.class).profiles("test"), args, properties);
+    }
+
+    /**
+     * Запуск на PostgreSQL: схема создаётся миграциями Flyway, как в рабочей конфигурации.
+     */
+    static ConfigurableApplicationContext startOnPostgres(PostgreSQLContainer<?> postgres, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--scheduling.enabled=false"));
+        return run(new SpringApplicationBuilder(EventManagementApplication.class), args, properties);
+    }
+
+    private static ConfigurableApplicationContext run(SpringApplicationBuilder builder, List<String> args,
+                                                      String... properties) {
+        args.add("--spring.jpa.show-sql=false");
+        args.add("--logging.level.root=WARN");
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return builder
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+
+    static List<Long> seedRooms(JdbcTemplate jdbcTemplate, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"Помещение " + i, 20 + i % 10 * 20});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO rooms (name, capacity, deleted) VALUES (?, ?, false)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM rooms ORDER BY id", Long.class);
+    }
+
+    /**
+     * Бронирования по часу с промежутками от 30 минут до 3 часов, распределённые по помещениям
+     * по кругу.
+     *
+     * @return время окончания последнего бронирования
+     */
+    static LocalDateTime seedBookings(JdbcTemplate jdbcTemplate, List<Long> roomIds, int count) {
+        Random random = new Random(SEED);
+        LocalDateTime[] nextStart = new LocalDateTime[roomIds.size()];
+        Arrays.fill(nextStart, SCHEDULE_START);
+        LocalDateTime last = SCHEDULE_START;
+
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            int room = i % roomIds.size();
+            LocalDateTime start = nextStart[room];
+            LocalDateTime end = start.plusHours(1);
+            nextStart[room] = end.plusMinutes(30 + random.nextInt(150));
+            last = end.isAfter(last) ? end : last;
+
+            rows.add(new Object[]{"Мероприятие " + i, Timestamp.valueOf(start), Timestamp.valueOf(end), roomIds.get(room)});
+            if (rows.size() == INSERT_BATCH_SIZE || i == count - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO events (name, start_time, end_time, room_id, " +
+                        "registered_count, flash_sale, deleted) VALUES (?, ?, ?, ?, 0, false, false)", rows);
+                rows.clear();
+            }
+        }
+        return last;
+    }
+
+    static void seedParticipants(JdbcTemplate jdbcTemplate, int count) {
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            String email = email(i);
+            rows.add(new Object[]{"Имя" + i, "Фамилия" + i, email, email});
+            if (rows.size() == INSERT_BATCH_SIZE || i == count - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO participants (first_name, last_name, email, email_normalized, " +
+                        "deleted) VALUES (?, ?, ?, ?, false)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    static String email(int index) {
+        return "participant" + index + "@example.com";
+    }
+}
@@ -0,0 +1,96 @@
+package org.nurfet.eventmanagementapplication.benchmark;
+
+import org.nurfet.eventmanagementapplication.dto.EventBatchResultDTO;
+import org.nurfet.eventmanagementapplication.dto.EventDTO;
+import org.nurfet.eventmanagementapplication.service.EventService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Создание {@value #EVENTS} мероприятий по одному ({@link EventService#createEvent}, транзакция
+ * на мероприятие) и одной пачкой ({@link EventService#createEventsBatch}). Результат - строк
+ * в секунду. Пакетная вставка и ограничение на пересечение бронирований рассчитаны на PostgreSQL,
+ * поэтому база запускается в контейнере. Каждый вызов бронирует новое помещение.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(EventBatchCreateBenchmark.EVENTS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EventBatchCreateBenchmark {
+
+    static final int EVENTS = 500;
+
+    private PostgreSQLContainer<?> postgres;
+
+    private ConfigurableApplicationContext context;
+
+    private EventService eventService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private List<EventDTO> events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16.4-alpine");
+        postgres.start();
+        context = BenchmarkApplication.startOnPostgres(postgres);
+        eventService = context.getBean(EventService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareEvents() {
+        Long roomId = jdbcTemplate.queryForObject(
+                "INSERT INTO rooms (name, capacity) VALUES ('Зал', 100) RETURNING id", Long.class);
+        events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            EventDTO dto = new EventDTO();
+            dto.setName("Занятие " + i);
+            dto.setStartTime(BenchmarkApplication.SCHEDULE_START.plusHours(2L * i));
+            dto.setEndTime(dto.getStartTime().plusHours(1));
+            dto.setRoomId(roomId);
+            events.add(dto);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public void createSingly(Blackhole blackhole) {
+        for (EventDTO event : events) {
+            blackhole.consume(eventService.createEvent(event));
+        }
+    }
+
+    @Benchmark
+    public List<EventBatchResultDTO> createBatch() {
+        return eventService.createEventsBatch(events);
+    }
+}
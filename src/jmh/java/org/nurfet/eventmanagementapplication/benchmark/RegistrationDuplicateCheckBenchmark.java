@@ -0,0 +1,97 @@
+package org.nurfet.eventmanagementapplication.benchmark;
+
+import org.nurfet.eventmanagementapplication.model.Participant;
+import org.nurfet.eventmanagementapplication.repository.ParticipantRepository;
+import org.nurfet.eventmanagementapplication.service.ParticipantEmailFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка email при регистрации участника: фильтр email в памяти и поиск по индексу
+ * email_normalized для уже известного и для нового адреса.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationDuplicateCheckBenchmark {
+
+    private static final int PROBES = 1_024;
+
+    @Param({"10000", "100000"})
+    private int participants;
+
+    private ConfigurableApplicationContext context;
+
+    private ParticipantEmailFilter emailFilter;
+
+    private ParticipantRepository participantRepository;
+
+    private String[] knownEmails;
+
+    private String[] newEmails;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedParticipants(context.getBean(JdbcTemplate.class), participants);
+
+        emailFilter = context.getBean(ParticipantEmailFilter.class);
+        emailFilter.load();
+        participantRepository = context.getBean(ParticipantRepository.class);
+
+        Random random = new Random(BenchmarkApplication.SEED);
+        knownEmails = new String[PROBES];
+        newEmails = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            knownEmails[i] = BenchmarkApplication.email(random.nextInt(participants));
+            newEmails[i] = BenchmarkApplication.email(participants + random.nextInt(participants));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean filterNewEmail() {
+        return emailFilter.mightExist(newEmails[nextProbe()]);
+    }
+
+    @Benchmark
+    public Optional<Participant> lookupKnownEmail() {
+        return participantRepository.findByEmailNormalized(knownEmails[nextProbe()]);
+    }
+
+    @Benchmark
+    public Optional<Participant> lookupNewEmail() {
+        return participantRepository.findByEmailNormalized(newEmails[nextProbe()]);
+    }
+
+    private int nextProbe() {
+        next = (next + 1) & (PROBES - 1);
+        return next;
+    }
+}
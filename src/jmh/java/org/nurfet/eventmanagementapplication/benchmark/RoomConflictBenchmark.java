@@ -0,0 +1,106 @@
+package org.nurfet.eventmanagementapplication.benchmark;
+
+import org.nurfet.eventmanagementapplication.dto.RoomDTO;
+import org.nurfet.eventmanagementapplication.repository.RoomRepository;
+import org.nurfet.eventmanagementapplication.service.RoomBookingIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка пересечения бронирований ({@code EventService.validateRoomAvailability} обращается
+ * к {@link RoomBookingIndex#isOccupied}) и поиск свободных помещений
+ * ({@link RoomRepository#findAvailableRooms}) при 10-100 тысячах бронирований.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomConflictBenchmark {
+
+    private static final int ROOMS = 20;
+    private static final int PROBES = 1_024;
+
+    @Param({"10000", "100000"})
+    private int bookings;
+
+    /**
+     * Реализация индекса, см. свойство booking.index.
+     */
+    @Param({"memory", "database"})
+    private String index;
+
+    private ConfigurableApplicationContext context;
+
+    private RoomBookingIndex roomBookingIndex;
+
+    private RoomRepository roomRepository;
+
+    private long[] probeRooms;
+
+    private LocalDateTime[] probeStarts;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("booking.index=" + index);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Long> roomIds = BenchmarkApplication.seedRooms(jdbcTemplate, ROOMS);
+        LocalDateTime last = BenchmarkApplication.seedBookings(jdbcTemplate, roomIds, bookings);
+
+        roomBookingIndex = context.getBean(RoomBookingIndex.class);
+        roomRepository = context.getBean(RoomRepository.class);
+
+        Random random = new Random(BenchmarkApplication.SEED);
+        long scheduleMinutes = Duration.between(BenchmarkApplication.SCHEDULE_START, last).toMinutes();
+        probeRooms = new long[PROBES];
+        probeStarts = new LocalDateTime[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeRooms[i] = roomIds.get(random.nextInt(roomIds.size()));
+            probeStarts[i] = BenchmarkApplication.SCHEDULE_START.plusMinutes(random.nextLong(scheduleMinutes));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean isOccupied() {
+        int probe = nextProbe();
+        return roomBookingIndex.isOccupied(probeRooms[probe], null, probeStarts[probe], probeStarts[probe].plusHours(1));
+    }
+
+    @Benchmark
+    public List<RoomDTO> findAvailableRooms() {
+        int probe = nextProbe();
+        return roomRepository.findAvailableRooms(probeStarts[probe], probeStarts[probe].plusHours(1), 0);
+    }
+
+    private int nextProbe() {
+        next = (next + 1) & (PROBES - 1);
+        return next;
+    }
+}
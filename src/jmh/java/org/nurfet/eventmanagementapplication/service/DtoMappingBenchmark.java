@@ -0,0 +1,116 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.nurfet.eventmanagementapplication.dto.EventDTO;
+import org.nurfet.eventmanagementapplication.dto.ParticipantDTO;
+import org.nurfet.eventmanagementapplication.model.Event;
+import org.nurfet.eventmanagementapplication.model.Participant;
+import org.nurfet.eventmanagementapplication.model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование сущностей в DTO ({@link EventService#convertToDTO}, {@link ParticipantService#getParticipantDTO})
+ * и сериализация списка мероприятий в JSON, как в ответе GET /api/events.
+ * <p>
+ * Находится в пакете сервисов, так как методы преобразования не публичные.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private static final long SEED = 20240601L;
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private List<Event> events;
+
+    private List<Participant> participants;
+
+    private List<EventDTO> eventDTOs;
+
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Room room = new Room();
+            room.setId((long) i + 1);
+            room.setName("Помещение " + i);
+            room.setCapacity(20 + random.nextInt(200));
+            rooms.add(room);
+        }
+
+        events = new ArrayList<>(size);
+        participants = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Event event = new Event();
+            event.setId((long) i + 1);
+            event.setName("Мероприятие " + i);
+            event.setStartTime(start.plusMinutes(random.nextInt(500_000)));
+            event.setEndTime(event.getStartTime().plusHours(1 + random.nextInt(4)));
+            event.setRoom(rooms.get(random.nextInt(rooms.size())));
+            event.setRegisteredCount(random.nextInt(100));
+            events.add(event);
+
+            Participant participant = new Participant();
+            participant.setId((long) i + 1);
+            participant.setFirstName("Имя" + i);
+            participant.setLastName("Фамилия" + i);
+            participant.setEmail("participant" + i + "@example.com");
+            participant.setPhone("+7(999)" + (1_000_000 + random.nextInt(9_000_000)));
+            participants.add(participant);
+        }
+
+        eventDTOs = mapEvents();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public List<EventDTO> mapEvents() {
+        List<EventDTO> dtos = new ArrayList<>(events.size());
+        for (Event event : events) {
+            dtos.add(EventService.convertToDTO(event));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<ParticipantDTO> mapParticipants() {
+        List<ParticipantDTO> dtos = new ArrayList<>(participants.size());
+        for (Participant participant : participants) {
+            dtos.add(ParticipantService.getParticipantDTO(participant));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public byte[] serializeEvents() throws Exception {
+        return objectMapper.writeValueAsBytes(eventDTOs);
+    }
+}
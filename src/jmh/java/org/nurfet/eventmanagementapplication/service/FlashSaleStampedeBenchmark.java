@@ -0,0 +1,98 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
+import org.nurfet.eventmanagementapplication.dto.ReservationDTO;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * «Давка» на бронирование мест ({@link FlashSaleService}): 64 потока одновременно бронируют и
+ * подтверждают места на одно мероприятие. Пропускная способность и распределение задержек
+ * (p99 в режиме SampleTime) снимаются для выигравших запросов ({@link #reserveAndConfirm})
+ * и для отказов, когда места закончились ({@link #reserveSoldOut}).
+ * <p>
+ * БД заменена заглушками: при бронировании сервис к ней не обращается, а запись пачек
+ * подтверждений идёт в отдельном потоке. Сервис пересоздаётся на каждой итерации, чтобы
+ * бронирования предыдущих итераций не накапливались в памяти.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FlashSaleStampedeBenchmark {
+
+    private static final long EVENT_ID = 1L;
+
+    private static final long SOLD_OUT_EVENT_ID = 2L;
+
+    private final EventRegistrationDTO registration = new EventRegistrationDTO("Иван", "Петров",
+            "participant@example.com", "+7(999)999-99-99");
+
+    private FlashSaleService flashSaleService;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        EventRepository eventRepository = mock(EventRepository.class);
+        EventService eventService = mock(EventService.class);
+
+        when(eventRepository.findFlashSaleFreeSeats(EVENT_ID)).thenReturn(Optional.of(Integer.MAX_VALUE));
+        when(eventRepository.findFlashSaleFreeSeats(SOLD_OUT_EVENT_ID)).thenReturn(Optional.of(0));
+        when(eventService.registerParticipantsBatch(eq(EVENT_ID), anyList())).thenAnswer(invocation -> {
+            List<EventRegistrationDTO> batch = invocation.getArgument(1);
+            return Collections.nCopies(batch.size(), null);
+        });
+
+        flashSaleService = new FlashSaleService(eventRepository, eventService, mock(CacheInvalidator.class));
+        ReflectionTestUtils.setField(flashSaleService, "reservationTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(flashSaleService, "batchSize", 200);
+        ReflectionTestUtils.setField(flashSaleService, "flushInterval", Duration.ofMillis(200));
+        flashSaleService.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws InterruptedException {
+        flashSaleService.stop();
+    }
+
+    @Benchmark
+    public ReservationDTO reserveAndConfirm() {
+        ReservationDTO reservation = flashSaleService.reserve(EVENT_ID);
+        return flashSaleService.confirm(EVENT_ID, reservation.getToken(), registration);
+    }
+
+    @Benchmark
+    public ReservationDTO reserveSoldOut() {
+        try {
+            return flashSaleService.reserve(SOLD_OUT_EVENT_ID);
+        } catch (IllegalStateException soldOut) {
+            return null;
+        }
+    }
+}
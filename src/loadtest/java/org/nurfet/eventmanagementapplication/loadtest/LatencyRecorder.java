@@ -0,0 +1,72 @@
+package org.nurfet.eventmanagementapplication.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Задержки запросов одного вида. Хранятся все значения, поэтому перцентили точные; объём
+ * ограничен числом запросов за время теста.
+ */
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+
+    private long[] serviceTimes = new long[1024];
+
+    private int count;
+
+    private int errors;
+
+    /**
+     * @param latencyNanos   время от запланированного момента отправки до ответа
+     * @param serviceNanos   время от фактической отправки до ответа
+     */
+    synchronized void record(long latencyNanos, long serviceNanos, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+            serviceTimes = Arrays.copyOf(serviceTimes, count * 2);
+        }
+        latencies[count] = latencyNanos;
+        serviceTimes[count] = serviceNanos;
+        count++;
+        if (error) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize() {
+        long[] sortedLatencies = Arrays.copyOf(latencies, count);
+        long[] sortedServiceTimes = Arrays.copyOf(serviceTimes, count);
+        Arrays.sort(sortedLatencies);
+        Arrays.sort(sortedServiceTimes);
+        return new Summary(count, errors,
+                percentile(sortedLatencies, 0.50), percentile(sortedLatencies, 0.95),
+                percentile(sortedLatencies, 0.99), percentile(sortedServiceTimes, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Задержки в миллисекундах.
+     */
+    record Summary(int count, int errors, double p50, double p95, double p99, double serviceP99) {
+
+        double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+
+        double percentile(String name) {
+            return switch (name) {
+                case "p50" -> p50;
+                case "p95" -> p95;
+                case "p99" -> p99;
+                default -> throw new IllegalArgumentException("Неизвестный перцентиль " + name);
+            };
+        }
+    }
+}
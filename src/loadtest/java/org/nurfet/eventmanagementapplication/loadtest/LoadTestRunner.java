@@ -0,0 +1,279 @@
+package org.nurfet.eventmanagementapplication.loadtest;
+
+import org.nurfet.eventmanagementapplication.EventManagementApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный тест: запускает приложение, заполняет базу тестовыми данными и отправляет
+ * запросы в заданной пропорции с постоянной интенсивностью.
+ * <p>
+ * Запросы отправляются по расписанию (открытая модель нагрузки), а задержка отсчитывается
+ * от запланированного момента отправки, а не от фактического. Если сервер замедлился и
+ * клиентские потоки заняты, ожидание запроса в очереди тоже входит в задержку - так
+ * исключается координированное пропускание (coordinated omission), при котором медленные
+ * периоды почти не попадают в статистику. Время обработки без ожидания выводится отдельно.
+ * <p>
+ * Клиенты - пул обычных потоков {@code loadtest.clients} (проект собирается под Java 17).
+ * При превышении бюджетов {@code loadtest.budget.*} процесс завершается с кодом 1.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Properties config = loadConfig(args.length > 0 ? args[0] : "loadtest.properties");
+        long seed = Long.parseLong(config.getProperty("loadtest.seed", "1"));
+        int rate = Integer.parseInt(config.getProperty("loadtest.rate", "100"));
+        Duration warmup = Duration.parse(config.getProperty("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(config.getProperty("loadtest.duration", "PT60S"));
+        int clients = Integer.parseInt(config.getProperty("loadtest.clients", "64"));
+
+        Map<String, LatencyRecorder.Summary> summaries;
+        try (ConfigurableApplicationContext context = startApplication(config)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            String runId = Long.toString(System.currentTimeMillis(), 36);
+            LocalDateTime scheduleStart = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+            Random random = new Random(seed);
+            List<Long> roomIds = seedRooms(jdbcTemplate, runId,
+                    Integer.parseInt(config.getProperty("loadtest.data.rooms", "20")));
+            List<Long> eventIds = seedEvents(jdbcTemplate, runId, roomIds, scheduleStart,
+                    Integer.parseInt(config.getProperty("loadtest.data.events", "2000")));
+
+            ExecutorService pool = Executors.newFixedThreadPool(clients);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            TrafficMix mix = new TrafficMix(client, baseUrl, roomIds, eventIds, scheduleStart, runId, weights(config));
+
+            summaries = run(mix, pool, random, rate, warmup, duration);
+            pool.shutdownNow();
+        }
+
+        List<String> violations = checkBudgets(config, summaries);
+        printReport(summaries, duration, violations);
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    private static Map<String, LatencyRecorder.Summary> run(TrafficMix mix, ExecutorService pool, Random random,
+                                                            int rate, Duration warmup, Duration duration)
+            throws InterruptedException {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        mix.names().forEach(name -> recorders.put(name, new LatencyRecorder()));
+
+        List<MeasuredRequest> measured = new ArrayList<>();
+
+        long intervalNanos = 1_000_000_000L / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            String name = mix.pick(random);
+            long requestSeed = random.nextLong();
+            MeasuredRequest request = intended >= measureFrom ? new MeasuredRequest(recorders.get(name), intended) : null;
+            if (request != null) {
+                measured.add(request);
+            }
+            pool.execute(() -> {
+                if (request != null) {
+                    request.sent = System.nanoTime();
+                }
+                boolean ok;
+                try {
+                    ok = mix.execute(name, requestSeed);
+                } catch (Exception e) {
+                    ok = false;
+                }
+                if (request != null) {
+                    request.record(System.nanoTime(), ok);
+                }
+            });
+        }
+
+        pool.shutdown();
+        if (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+            // зависшие и не начатые запросы считаются ошибками с задержкой до момента остановки,
+            // иначе остановка сервера занижала бы перцентили и долю ошибок
+            long cutoff = System.nanoTime();
+            pool.shutdownNow();
+            long unfinished = measured.stream().filter(request -> request.record(cutoff, false)).count();
+            System.err.println("Запросы не завершились за минуту после окончания теста: " + unfinished);
+        }
+
+        Map<String, LatencyRecorder.Summary> summaries = new LinkedHashMap<>();
+        recorders.forEach((name, recorder) -> summaries.put(name, recorder.summarize()));
+        return summaries;
+    }
+
+    /**
+     * Запрос, попадающий в статистику. Записывается один раз: по ответу или, если ответа нет,
+     * при остановке теста.
+     */
+    private static final class MeasuredRequest {
+
+        private final LatencyRecorder recorder;
+
+        private final long intended;
+
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        private volatile long sent;
+
+        MeasuredRequest(LatencyRecorder recorder, long intended) {
+            this.recorder = recorder;
+            this.intended = intended;
+        }
+
+        /**
+         * @return {@code false}, если запрос уже записан
+         */
+        boolean record(long done, boolean ok) {
+            if (!recorded.compareAndSet(false, true)) {
+                return false;
+            }
+            long serviceNanos = sent == 0 ? 0 : done - sent;
+            recorder.record(done - intended, serviceNanos, !ok);
+            return true;
+        }
+    }
+
+    private static List<String> checkBudgets(Properties config, Map<String, LatencyRecorder.Summary> summaries) {
+        List<String> violations = new ArrayList<>();
+        double maxErrorRate = Double.parseDouble(config.getProperty("loadtest.budget.error-rate", "0.01"));
+
+        summaries.forEach((name, summary) -> {
+            for (String percentile : List.of("p50", "p95", "p99")) {
+                String budget = config.getProperty("loadtest.budget." + name + "." + percentile);
+                if (budget != null && summary.percentile(percentile) > Double.parseDouble(budget)) {
+                    violations.add(String.format("%s: %s %.1f мс > %s мс",
+                            name, percentile, summary.percentile(percentile), budget));
+                }
+            }
+            if (summary.errorRate() > maxErrorRate) {
+                violations.add(String.format("%s: доля ошибок %.3f > %.3f", name, summary.errorRate(), maxErrorRate));
+            }
+        });
+        return violations;
+    }
+
+    private static void printReport(Map<String, LatencyRecorder.Summary> summaries, Duration duration,
+                                    List<String> violations) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.println("\n=== Нагрузочный тест ===");
+        System.out.printf("%-14s %8s %8s %10s %9s %9s %9s %12s%n",
+                "запросы", "всего", "ошибок", "запросов/с", "p50, мс", "p95, мс", "p99, мс", "p99 обр., мс");
+        summaries.forEach((name, summary) -> System.out.printf("%-14s %8d %8d %10.1f %9.1f %9.1f %9.1f %12.1f%n",
+                name, summary.count(), summary.errors(), summary.count() / seconds,
+                summary.p50(), summary.p95(), summary.p99(), summary.serviceP99()));
+        if (violations.isEmpty()) {
+            System.out.println("Бюджеты задержки соблюдены");
+        } else {
+            System.out.println("Превышены бюджеты:");
+            violations.forEach(violation -> System.out.println("  " + violation));
+        }
+        System.out.println("========================\n");
+    }
+
+    private static ConfigurableApplicationContext startApplication(Properties config) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0", "--scheduling.enabled=false"));
+        config.stringPropertyNames().stream()
+                .filter(key -> key.startsWith("app."))
+                .forEach(key -> args.add("--" + key.substring("app.".length()) + "=" + config.getProperty(key)));
+        return new SpringApplicationBuilder(EventManagementApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static List<Long> seedRooms(JdbcTemplate jdbcTemplate, String runId, int count) {
+        List<Long> roomIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            roomIds.add(jdbcTemplate.queryForObject("INSERT INTO rooms (name, capacity) VALUES (?, ?) RETURNING id",
+                    Long.class, "Нагрузка " + runId + "-" + i, 500));
+        }
+        return roomIds;
+    }
+
+    /**
+     * Мероприятия по два часа подряд в каждом помещении в течение 30 дней от {@code scheduleStart}.
+     */
+    private static List<Long> seedEvents(JdbcTemplate jdbcTemplate, String runId, List<Long> roomIds,
+                                         LocalDateTime scheduleStart, int count) {
+        int slotsPerRoom = Math.max(1, count / roomIds.size());
+        long slotHours = Math.max(2, 30L * 24 / slotsPerRoom);
+        List<Long> eventIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = scheduleStart.plusHours(slotHours * (i / roomIds.size()));
+            eventIds.add(jdbcTemplate.queryForObject("INSERT INTO events (name, start_time, end_time, room_id) " +
+                            "VALUES (?, ?, ?, ?) RETURNING id", Long.class, "Нагрузка " + runId + "-" + i,
+                    Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)), roomIds.get(i % roomIds.size())));
+        }
+        return eventIds;
+    }
+
+    private static Map<String, Integer> weights(Properties config) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        config.stringPropertyNames().stream()
+                .filter(key -> key.startsWith("loadtest.mix."))
+                .sorted()
+                .forEach(key -> weights.put(key.substring("loadtest.mix.".length()),
+                        Integer.parseInt(config.getProperty(key))));
+        return weights;
+    }
+
+    /**
+     * Читает конфигурацию из файла или, если файла нет, из ресурса с тем же именем.
+     */
+    private static Properties loadConfig(String location) throws IOException {
+        Properties config = new Properties();
+        Path path = Path.of(location);
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                config.load(reader);
+            }
+            return config;
+        }
+        try (InputStream input = LoadTestRunner.class.getClassLoader().getResourceAsStream(location)) {
+            if (input == null) {
+                throw new IllegalArgumentException("Не найдена конфигурация нагрузочного теста " + location);
+            }
+            config.load(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+        return config;
+    }
+}
@@ -0,0 +1,143 @@
+package org.nurfet.eventmanagementapplication.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Виды запросов нагрузочного теста и их доли ({@code loadtest.mix.*}).
+ */
+final class TrafficMix {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+
+    private final String baseUrl;
+
+    private final List<Long> roomIds;
+
+    private final List<Long> eventIds;
+
+    private final LocalDateTime scheduleStart;
+
+    private final String runId;
+
+    private final Map<String, Scenario> scenarios = new LinkedHashMap<>();
+
+    private final List<String> weighted = new ArrayList<>();
+
+    private final AtomicLong registrations = new AtomicLong();
+
+    private final AtomicLong bookings = new AtomicLong();
+
+    TrafficMix(HttpClient client, String baseUrl, List<Long> roomIds, List<Long> eventIds,
+               LocalDateTime scheduleStart, String runId, Map<String, Integer> weights) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.roomIds = roomIds;
+        this.eventIds = eventIds;
+        this.scheduleStart = scheduleStart;
+        this.runId = runId;
+
+        scenarios.put("list", this::list);
+        scenarios.put("between", this::between);
+        scenarios.put("availability", this::availability);
+        scenarios.put("register", this::register);
+        scenarios.put("booking", this::booking);
+
+        weights.forEach((name, weight) -> {
+            if (!scenarios.containsKey(name)) {
+                throw new IllegalArgumentException("Неизвестный вид запросов " + name);
+            }
+            for (int i = 0; i < weight; i++) {
+                weighted.add(name);
+            }
+        });
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Не заданы доли запросов loadtest.mix.*");
+        }
+    }
+
+    List<String> names() {
+        return List.copyOf(scenarios.keySet());
+    }
+
+    String pick(Random random) {
+        return weighted.get(random.nextInt(weighted.size()));
+    }
+
+    /**
+     * @return {@code true}, если сервер ответил кодом 2xx
+     */
+    boolean execute(String name, long seed) throws Exception {
+        HttpResponse<Void> response = client.send(scenarios.get(name).request(new Random(seed)),
+                HttpResponse.BodyHandlers.discarding());
+        return response.statusCode() / 100 == 2;
+    }
+
+    private HttpRequest list(Random random) {
+        return get("/api/events/page?size=50");
+    }
+
+    private HttpRequest between(Random random) {
+        LocalDateTime start = scheduleStart.plusDays(random.nextInt(30));
+        return get("/api/events/between?start=" + start + "&end=" + start.plusDays(1));
+    }
+
+    private HttpRequest availability(Random random) {
+        LocalDateTime start = scheduleStart.plusHours(random.nextInt(30 * 24));
+        return get("/api/rooms/available?startTime=" + start + "&endTime=" + start.plusHours(2));
+    }
+
+    private HttpRequest register(Random random) {
+        Long eventId = eventIds.get(random.nextInt(eventIds.size()));
+        String body = String.format("{\"firstName\":\"Нагрузка\",\"lastName\":\"Тест\"," +
+                        "\"email\":\"load_%s_%d@example.com\",\"phone\":\"+7(999)999-99-99\"}",
+                runId, registrations.incrementAndGet());
+        return post("/api/events/" + eventId + "/register", body);
+    }
+
+    /**
+     * Каждое бронирование получает свой промежуток после расписания тестовых данных, поэтому
+     * пересечения не возникают.
+     */
+    private HttpRequest booking(Random random) {
+        long slot = bookings.getAndIncrement();
+        Long roomId = roomIds.get((int) (slot % roomIds.size()));
+        LocalDateTime start = scheduleStart.plusDays(400).plusHours(2 * (slot / roomIds.size()));
+        String body = String.format("{\"name\":\"Нагрузка %s-%d\",\"startTime\":\"%s\",\"endTime\":\"%s\",\"roomId\":%d}",
+                runId, slot, start, start.plusHours(1), roomId);
+        return post("/api/events", body);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface Scenario {
+
+        HttpRequest request(Random random);
+    }
+}
@@ -0,0 +1,43 @@
+package org.nurfet.eventmanagementapplication.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Кэши чтения в памяти узла. Размер и срок жизни каждого кэша задаются спецификацией Caffeine
+ * ({@code cache.<имя>.spec}); тип кэша выбирается свойством {@code spring.cache.type}
+ * ({@code none} отключает кэширование).
+ * <p>
+ * Записи удаляются после фиксации изменяющих транзакций, см.
+ * {@link org.nurfet.eventmanagementapplication.service.CacheInvalidator}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EVENTS = "events";
+
+    public static final String ROOMS = "rooms";
+
+    public static final String ROOM_LIST = "roomList";
+
+    public static final String PARTICIPANTS = "participants";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> cacheSpecs(
+            @Value("${cache.events.spec:maximumSize=10000,expireAfterWrite=5m,recordStats}") String eventsSpec,
+            @Value("${cache.rooms.spec:maximumSize=1000,expireAfterWrite=1h,recordStats}") String roomsSpec,
+            @Value("${cache.participants.spec:maximumSize=50000,expireAfterWrite=10m,recordStats}") String participantsSpec) {
+        return cacheManager -> {
+            cacheManager.registerCustomCache(EVENTS, Caffeine.from(eventsSpec).build());
+            cacheManager.registerCustomCache(ROOMS, Caffeine.from(roomsSpec).build());
+            cacheManager.registerCustomCache(ROOM_LIST, Caffeine.from(roomsSpec).build());
+            cacheManager.registerCustomCache(PARTICIPANTS, Caffeine.from(participantsSpec).build());
+        };
+    }
+}
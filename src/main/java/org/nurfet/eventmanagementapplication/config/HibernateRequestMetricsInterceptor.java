@@ -0,0 +1,72 @@
+package org.nurfet.eventmanagementapplication.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Записывает {@link HibernateRequestStatistics} каждого запроса в распределения
+ * {@code hibernate.request.entity.loads} и {@code hibernate.request.collection.fetches},
+ * а число SQL-запросов из {@link SqlStatementBudget#REQUEST_ATTRIBUTE} - в
+ * {@code hibernate.request.statements}. Теги {@code method} и {@code uri} (шаблон пути,
+ * как у {@code http.server.requests}).
+ * <p>
+ * Для потоковых ответов учитывается обработка до начала асинхронной части: счётчики потока
+ * освобождаются в {@link #afterConcurrentHandlingStarted}, повторная асинхронная диспетчеризация
+ * не записывается.
+ */
+@RequiredArgsConstructor
+public class HibernateRequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            HibernateRequestStatistics.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        finish(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        finish(request);
+    }
+
+    private void finish(HttpServletRequest request) {
+        HibernateRequestStatistics.Counters counters = HibernateRequestStatistics.stop();
+        if (counters == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : "UNKNOWN");
+
+        // журнал SQL-запросов сохраняет SqlStatementBudgetInterceptor, его afterCompletion выполняется раньше
+        Object statements = request.getAttribute(SqlStatementBudget.REQUEST_ATTRIBUTE);
+        if (statements instanceof SqlStatementBudget.StatementLog log) {
+            record("hibernate.request.statements", tags, log.count());
+        }
+        record("hibernate.request.entity.loads", tags, counters.entityLoads());
+        record("hibernate.request.collection.fetches", tags, counters.collectionFetches());
+    }
+
+    private void record(String name, Tags tags, long value) {
+        DistributionSummary.builder(name)
+                .tags(tags)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
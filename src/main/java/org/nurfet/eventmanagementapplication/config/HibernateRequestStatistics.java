@@ -0,0 +1,83 @@
+package org.nurfet.eventmanagementapplication.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Счётчики Hibernate для текущего HTTP-запроса: загруженные сущности и загруженные коллекции.
+ * Общая статистика Hibernate ({@code hibernate.generate_statistics}) суммирует все потоки,
+ * поэтому загрузки одного эндпоинта считаются отдельно в потоке запроса. SQL-запросы
+ * подсчитывает {@link SqlStatementBudget}.
+ * <p>
+ * Подсчёт идёт только между {@link #start()} и {@link #stop()}.
+ */
+public final class HibernateRequestStatistics {
+
+    private static final ThreadLocal<Counters> CURRENT = new ThreadLocal<>();
+
+    private HibernateRequestStatistics() {
+    }
+
+    public static void start() {
+        CURRENT.set(new Counters());
+    }
+
+    /**
+     * @return счётчики с момента {@link #start()} или {@code null}, если подсчёт не начинался
+     */
+    public static Counters stop() {
+        Counters counters = CURRENT.get();
+        CURRENT.remove();
+        return counters;
+    }
+
+    public static final class Counters {
+
+        private long entityLoads;
+
+        private long collectionFetches;
+
+        public long entityLoads() {
+            return entityLoads;
+        }
+
+        public long collectionFetches() {
+            return collectionFetches;
+        }
+    }
+
+    /**
+     * Добавляет слушателей загрузки сущностей и коллекций после стандартных.
+     */
+    static class LoadIntegrator implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                              SessionFactoryImplementor sessionFactory) {
+            EventListenerRegistry listeners = sessionFactory.getServiceRegistry()
+                    .getService(EventListenerRegistry.class);
+            listeners.appendListeners(EventType.POST_LOAD, event -> {
+                Counters counters = CURRENT.get();
+                if (counters != null) {
+                    counters.entityLoads++;
+                }
+            });
+            listeners.appendListeners(EventType.INIT_COLLECTION, event -> {
+                Counters counters = CURRENT.get();
+                if (counters != null) {
+                    counters.collectionFetches++;
+                }
+            });
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                 SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.nurfet.eventmanagementapplication.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Метрики запросов к Hibernate в разрезе HTTP-запросов. Время эндпоинтов
+ * ({@code http.server.requests}), пул HikariCP и общая статистика Hibernate
+ * публикуются автоконфигурацией Actuator, время методов сервисов - через {@code @Timed}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateRequestStatisticsCustomizer() {
+        return properties -> properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(new HibernateRequestStatistics.LoadIntegrator()));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // снаружи SqlStatementBudgetInterceptor: метрики записываются после того, как он сохранит журнал SQL-запросов
+        meterRegistry.ifAvailable(meters -> registry.addInterceptor(new HibernateRequestMetricsInterceptor(meters))
+                .addPathPatterns("/api/**")
+                .order(Ordered.HIGHEST_PRECEDENCE));
+    }
+}
@@ -0,0 +1,176 @@
+package org.nurfet.eventmanagementapplication.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Бюджет SQL-запросов на HTTP-запрос и на транзакцию. Запросы к базе подсчитывает
+ * {@link StatementCountingDataSource}; при превышении бюджета в журнал пишется предупреждение
+ * с самыми частыми видами запросов - повторяющийся запрос с разными параметрами обычно означает N+1.
+ * <p>
+ * Транзакция считается отдельно от объемлющего HTTP-запроса; вложенная транзакция
+ * (REQUIRES_NEW) - отдельно от внешней. Бюджет 0 отключает проверку.
+ */
+@Slf4j
+@Component
+public class SqlStatementBudget {
+
+    /**
+     * Атрибут HTTP-запроса с его {@link StatementLog} после завершения обработки.
+     */
+    public static final String REQUEST_ATTRIBUTE = SqlStatementBudget.class.getName() + ".statements";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int MAX_SHAPE_LENGTH = 300;
+
+    @Value("${sql.statement-budget.request:25}")
+    private int requestBudget;
+
+    @Value("${sql.statement-budget.transaction:25}")
+    private int transactionBudget;
+
+    @Value("${sql.statement-budget.reported-shapes:5}")
+    private int reportedShapes;
+
+    private final ThreadLocal<StatementLog> currentRequest = new ThreadLocal<>();
+
+    void startRequest() {
+        currentRequest.set(new StatementLog());
+    }
+
+    /**
+     * @return запросы к базе с момента {@link #startRequest()} или {@code null}, если подсчёт не начинался
+     */
+    StatementLog finishRequest(String request) {
+        StatementLog statements = currentRequest.get();
+        currentRequest.remove();
+        if (statements != null) {
+            check("HTTP-запрос " + request, statements, requestBudget);
+        }
+        return statements;
+    }
+
+    void record(String sql) {
+        StatementLog request = currentRequest.get();
+        if (request != null) {
+            request.add(sql);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionLog().add(sql);
+        }
+    }
+
+    /**
+     * Счётчик текущей транзакции хранится в её синхронизации: синхронизации приостановленной
+     * внешней транзакции в списке нет, поэтому вложенная транзакция получает свой счётчик.
+     */
+    private StatementLog transactionLog() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof TransactionBudget budget) {
+                return budget.statements;
+            }
+        }
+        TransactionBudget budget = new TransactionBudget(TransactionSynchronizationManager.getCurrentTransactionName());
+        TransactionSynchronizationManager.registerSynchronization(budget);
+        return budget.statements;
+    }
+
+    private void check(String scope, StatementLog statements, int budget) {
+        if (budget > 0 && statements.count() > budget) {
+            log.warn("{}: выполнено SQL-запросов {} при бюджете {}. Частые запросы:\n{}",
+                    scope, statements.count(), budget, statements.describe(reportedShapes));
+        }
+    }
+
+    /**
+     * Вид запроса: литералы и списки параметров заменены на {@code ?}, пробелы схлопнуты.
+     */
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?, ...)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) + "..." : shape;
+    }
+
+    private class TransactionBudget implements TransactionSynchronization {
+
+        private final String name;
+
+        private final StatementLog statements = new StatementLog();
+
+        TransactionBudget(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            check("Транзакция " + name, statements, transactionBudget);
+        }
+    }
+
+    /**
+     * Запросы к базе одного HTTP-запроса или транзакции. Текст запросов хранится без разбора,
+     * виды запросов вычисляются только для отчёта.
+     */
+    public static final class StatementLog {
+
+        private static final int MAX_DISTINCT_STATEMENTS = 200;
+
+        /**
+         * Пакет {@link java.sql.Statement#executeBatch()} без общего текста запроса.
+         */
+        private static final String BATCH = "<пакет>";
+
+        private final Map<String, Integer> statements = new HashMap<>();
+
+        private int count;
+
+        void add(String sql) {
+            count++;
+            String key = sql != null ? sql : BATCH;
+            if (statements.size() < MAX_DISTINCT_STATEMENTS || statements.containsKey(key)) {
+                statements.merge(key, 1, Integer::sum);
+            }
+        }
+
+        public int count() {
+            return count;
+        }
+
+        /**
+         * @return число выполнений каждого вида запроса, от частых к редким
+         */
+        public Map<String, Integer> shapes() {
+            Map<String, Integer> shapes = new HashMap<>();
+            statements.forEach((sql, times) -> shapes.merge(shape(sql), times, Integer::sum));
+            return shapes.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+        }
+
+        public String describe(int limit) {
+            return shapes().entrySet().stream()
+                    .limit(limit)
+                    .map(entry -> String.format("  %d x %s", entry.getValue(), entry.getKey()))
+                    .collect(Collectors.joining("\n"));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.nurfet.eventmanagementapplication.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Подключает {@link SqlStatementBudget}: оборачивает источник данных в
+ * {@link StatementCountingDataSource} и считает запросы каждого вызова {@code /api/**}.
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "sql.statement-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementBudgetConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<SqlStatementBudget> budget;
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor(
+            ObjectProvider<SqlStatementBudget> budget) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource, budget);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        budget.ifAvailable(statements ->
+                registry.addInterceptor(new SqlStatementBudgetInterceptor(statements)).addPathPatterns("/api/**"));
+    }
+}
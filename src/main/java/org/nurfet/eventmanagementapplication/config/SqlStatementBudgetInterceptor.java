@@ -0,0 +1,45 @@
+package org.nurfet.eventmanagementapplication.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Подсчитывает SQL-запросы каждого HTTP-запроса и сохраняет их в атрибуте
+ * {@link SqlStatementBudget#REQUEST_ATTRIBUTE}. Для потоковых ответов учитываются только
+ * запросы до начала асинхронной обработки.
+ */
+@RequiredArgsConstructor
+public class SqlStatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private final SqlStatementBudget budget;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        budget.startRequest();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        finish(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        finish(request);
+    }
+
+    private void finish(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        SqlStatementBudget.StatementLog statements = budget.finishRequest(
+                request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+        if (statements != null) {
+            request.setAttribute(SqlStatementBudget.REQUEST_ATTRIBUTE, statements);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.nurfet.eventmanagementapplication.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Источник данных, сообщающий {@link SqlStatementBudget} о каждом выполненном запросе:
+ * вызовах {@code execute*} у {@link Statement}, {@link java.sql.PreparedStatement} и
+ * {@link java.sql.CallableStatement}, пакет {@code executeBatch} считается одним запросом.
+ * Подсчитываются запросы Hibernate и JdbcTemplate; COPY через API драйвера не учитывается.
+ * <p>
+ * Остальные вызовы, в том числе {@code unwrap}, передаются исходным объектам драйвера.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<SqlStatementBudget> budgetProvider;
+
+    /**
+     * Бюджет создаётся позже источника данных (например, после миграций Flyway).
+     */
+    private volatile SqlStatementBudget budget;
+
+    public StatementCountingDataSource(DataSource targetDataSource, ObjectProvider<SqlStatementBudget> budgetProvider) {
+        super(targetDataSource);
+        this.budgetProvider = budgetProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                        return countingStatement(statement, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Object countingStatement(Statement statement, Class<?> type, String preparedSql) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("execute")) {
+                        record(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql);
+                    } else if (name.equals("equals")) {
+                        return proxy == args[0];
+                    } else if (name.equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private void record(String sql) {
+        SqlStatementBudget current = budget;
+        if (current == null) {
+            current = budgetProvider.getIfAvailable();
+            if (current == null) {
+                return;
+            }
+            budget = current;
+        }
+        current.record(sql);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
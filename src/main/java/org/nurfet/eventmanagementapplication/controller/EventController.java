@@ -1,16 +1,28 @@
 package org.nurfet.eventmanagementapplication.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.dto.BulkRegistrationResultDTO;
+import org.nurfet.eventmanagementapplication.dto.EventBatchResultDTO;
 import org.nurfet.eventmanagementapplication.dto.EventDTO;
+import org.nurfet.eventmanagementapplication.dto.EventPageDTO;
 import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
 import org.nurfet.eventmanagementapplication.dto.ParticipantDTO;
+import org.nurfet.eventmanagementapplication.dto.RegistrationResultDTO;
+import org.nurfet.eventmanagementapplication.service.BulkRegistrationService;
 import org.nurfet.eventmanagementapplication.service.EventService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -24,6 +36,10 @@ public class EventController {
 
     private final EventService eventService;
 
+    private final BulkRegistrationService bulkRegistrationService;
+
+    private final ObjectMapper objectMapper;
+
     @GetMapping
     public ResponseEntity<List<EventDTO>> getAllEvents() {
         return ResponseEntity.ok(eventService.getAllEvents());
@@ -34,6 +50,17 @@ public class EventController {
         return ResponseEntity.ok(eventService.createEvent(eventDTO));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> createEventsBatch(@RequestBody List<EventDTO> eventDTOs) {
+        List<EventBatchResultDTO> results = eventService.createEventsBatch(eventDTOs);
+        long created = results.stream().filter(result -> result.getEvent() != null).count();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", String.format("Создано мероприятий: %d из %d", created, results.size()));
+        response.put("results", results);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/between")
     public ResponseEntity<List<EventDTO>> getEventsBetweenDates(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
@@ -41,6 +68,28 @@ public class EventController {
         return ResponseEntity.ok(eventService.getEventsBetweenDates(start, end));
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<EventPageDTO> getEventsPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(eventService.getEventsPage(start, end, cursor, size));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEvents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        eventService.checkDateRange(start, end);
+
+        StreamingResponseBody body = outputStream ->
+                eventService.streamEvents(start, end, event -> writeLine(outputStream, event));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<EventDTO> getEvent(@PathVariable Long id) {
         return ResponseEntity.ok(eventService.getEvent(id));
@@ -59,17 +108,58 @@ public class EventController {
             @PathVariable Long eventId,
             @Valid @RequestBody EventRegistrationDTO registrationDTO) {
 
-        ParticipantDTO participant = eventService.registerParticipant(eventId, registrationDTO);
+        RegistrationResultDTO result = eventService.registerParticipant(eventId, registrationDTO);
+        ParticipantDTO participant = result.getParticipant();
 
         Map<String, Object> response = new HashMap<>();
 
-        response.put("message", String.format("Участник %s %s успешно зарегистрирован на мероприятии с идентификатором %d",
-                participant.getFirstName(), participant.getLastName(), eventId));
+        if (result.getWaitlistPosition() != null) {
+            response.put("message", String.format("Свободных мест нет. Участник %s %s добавлен в лист ожидания " +
+                            "мероприятия с идентификатором %d, место в очереди: %d",
+                    participant.getFirstName(), participant.getLastName(), eventId, result.getWaitlistPosition()));
+            response.put("waitlistPosition", result.getWaitlistPosition());
+        } else {
+            response.put("message", String.format("Участник %s %s успешно зарегистрирован на мероприятии с идентификатором %d",
+                    participant.getFirstName(), participant.getLastName(), eventId));
+        }
+        response.put("status", result.getStatus());
         response.put("participant", participant);
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Массовая регистрация из JSON-массива; тело запроса читается потоком.
+     */
+    @PostMapping(value = "/{eventId}/register/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkRegistrationResultDTO> registerParticipantsBulk(
+            @PathVariable Long eventId,
+            InputStream body) {
+        return ResponseEntity.ok(bulkRegistrationService.registerJson(eventId, body));
+    }
+
+    /**
+     * Массовая регистрация из CSV с заголовком firstName,lastName,email,phone; тело запроса
+     * читается потоком.
+     */
+    @PostMapping(value = "/{eventId}/register/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkRegistrationResultDTO> registerParticipantsBulkCsv(
+            @PathVariable Long eventId,
+            InputStream body) {
+        return ResponseEntity.ok(bulkRegistrationService.registerCsv(eventId, body));
+    }
+
+    @DeleteMapping("/{eventId}/participants/{participantId}")
+    public ResponseEntity<Map<String, String>> unregisterParticipant(
+            @PathVariable Long eventId,
+            @PathVariable Long participantId) {
+        eventService.unregisterParticipant(eventId, participantId);
+        Map<String, String> response = new HashMap<>();
+        response.put("message", String.format("Регистрация участника %d на мероприятие с идентификатором %d отменена",
+                participantId, eventId));
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Map<String, String>> updateEvent(
             @PathVariable Long id,
@@ -92,4 +182,13 @@ public class EventController {
 
         return ResponseEntity.ok(participants);
     }
+
+    private void writeLine(OutputStream outputStream, EventDTO event) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(event));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package org.nurfet.eventmanagementapplication.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
+import org.nurfet.eventmanagementapplication.dto.ReservationDTO;
+import org.nurfet.eventmanagementapplication.service.FlashSaleService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/events/{eventId}")
+@RequiredArgsConstructor
+public class FlashSaleController {
+
+    private final FlashSaleService flashSaleService;
+
+    @PutMapping("/flash-sale")
+    public ResponseEntity<Map<String, String>> enableFlashSale(@PathVariable Long eventId) {
+        flashSaleService.enable(eventId);
+        Map<String, String> response = new HashMap<>();
+        response.put("message", String.format("Для мероприятия %d включена регистрация через бронирование мест", eventId));
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/flash-sale")
+    public ResponseEntity<Map<String, String>> disableFlashSale(@PathVariable Long eventId) {
+        flashSaleService.disable(eventId);
+        Map<String, String> response = new HashMap<>();
+        response.put("message", String.format("Для мероприятия %d отключена регистрация через бронирование мест", eventId));
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/reservations")
+    public ResponseEntity<ReservationDTO> reserve(@PathVariable Long eventId) {
+        return ResponseEntity.ok(flashSaleService.reserve(eventId));
+    }
+
+    @PostMapping("/reservations/{token}/confirm")
+    public ResponseEntity<ReservationDTO> confirm(
+            @PathVariable Long eventId,
+            @PathVariable String token,
+            @Valid @RequestBody EventRegistrationDTO registrationDTO) {
+        return ResponseEntity.accepted().body(flashSaleService.confirm(eventId, token, registrationDTO));
+    }
+
+    @GetMapping("/reservations/{token}")
+    public ResponseEntity<ReservationDTO> getReservation(@PathVariable Long eventId, @PathVariable String token) {
+        return ResponseEntity.ok(flashSaleService.getReservation(eventId, token));
+    }
+}
@@ -2,6 +2,7 @@ package org.nurfet.eventmanagementapplication.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.nurfet.eventmanagementapplication.dto.FreeSlotDTO;
 import org.nurfet.eventmanagementapplication.dto.RoomDTO;
 import org.nurfet.eventmanagementapplication.exception.ResourceNotFoundException;
 import org.nurfet.eventmanagementapplication.service.RoomService;
@@ -9,6 +10,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -35,9 +37,10 @@ public class RoomController {
     @GetMapping("/available")
     public ResponseEntity<Object> getAvailableRooms(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "0") int minCapacity) {
         try {
-            List<RoomDTO> rooms = roomService.getAvailableRooms(startTime, endTime);
+            List<RoomDTO> rooms = roomService.getAvailableRooms(startTime, endTime, minCapacity);
             return ResponseEntity.ok(rooms);
         } catch (ResourceNotFoundException e) {
             Map<String, String> response = new HashMap<>();
@@ -46,6 +49,16 @@ public class RoomController {
         }
     }
 
+    @GetMapping("/free-slots")
+    public ResponseEntity<List<FreeSlotDTO>> getFreeSlots(
+            @RequestParam Duration duration,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int minCapacity,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(roomService.findFreeSlots(duration, from, to, minCapacity, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<RoomDTO> getRoom(@PathVariable Long id) {
         return ResponseEntity.ok(roomService.getRoom(id));
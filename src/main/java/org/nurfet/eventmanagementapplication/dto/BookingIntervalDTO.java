@@ -0,0 +1,19 @@
+package org.nurfet.eventmanagementapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingIntervalDTO {
+
+    private Long eventId;
+
+    private Long roomId;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,31 @@
+package org.nurfet.eventmanagementapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkRegistrationResultDTO {
+
+    private long totalRows;
+
+    private long registered;
+
+    private long rejected;
+
+    /**
+     * Ошибки по строкам в порядке строк, не больше {@code registration.bulk.max-errors}.
+     */
+    private List<RegistrationRowErrorDTO> errors;
+
+    /**
+     * {@code true}, если ошибок больше, чем вошло в {@link #errors}.
+     */
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,33 @@
+package org.nurfet.eventmanagementapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventBatchResultDTO {
+
+    /**
+     * Номер мероприятия в запросе (с 0).
+     */
+    private int index;
+
+    /**
+     * CREATED или REJECTED.
+     */
+    private String status;
+
+    /**
+     * Созданное мероприятие, только для статуса CREATED.
+     */
+    private EventDTO event;
+
+    /**
+     * Причина отказа, только для статуса REJECTED.
+     */
+    private String error;
+}
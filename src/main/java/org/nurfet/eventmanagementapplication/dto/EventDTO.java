@@ -2,13 +2,17 @@ package org.nurfet.eventmanagementapplication.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
 
 @Getter
 @Setter
+@AllArgsConstructor
+@NoArgsConstructor
 public class EventDTO {
 
     private Long id;
@@ -26,4 +30,8 @@ public class EventDTO {
     private Long roomId;
 
     private String roomName;
+
+    private int registeredCount;
+
+    private boolean flashSale;
 }
@@ -0,0 +1,22 @@
+package org.nurfet.eventmanagementapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventPageDTO {
+
+    private List<EventDTO> items;
+
+    /**
+     * Курсор следующей страницы, {@code null} если страница последняя.
+     */
+    private String nextCursor;
+}
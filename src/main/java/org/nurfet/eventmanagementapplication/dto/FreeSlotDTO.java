@@ -0,0 +1,30 @@
+package org.nurfet.eventmanagementapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FreeSlotDTO {
+
+    private Long roomId;
+
+    private String roomName;
+
+    private Integer capacity;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    /**
+     * Последний момент, до которого помещение остаётся свободным.
+     */
+    private LocalDateTime freeUntil;
+}
@@ -1,10 +1,14 @@
 package org.nurfet.eventmanagementapplication.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@AllArgsConstructor
+@NoArgsConstructor
 public class ParticipantDTO {
 
     private Long id;
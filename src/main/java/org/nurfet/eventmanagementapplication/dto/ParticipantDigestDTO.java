@@ -0,0 +1,20 @@
+package org.nurfet.eventmanagementapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Мероприятия одного участника для сводки напоминаний, в порядке начала.
+ */
+@Getter
+@AllArgsConstructor
+public class ParticipantDigestDTO {
+
+    private Long participantId;
+
+    private String email;
+
+    private List<ReminderDTO> events;
+}
@@ -0,0 +1,25 @@
+package org.nurfet.eventmanagementapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegistrationResultDTO {
+
+    private ParticipantDTO participant;
+
+    /**
+     * REGISTERED или WAITLISTED.
+     */
+    private String status;
+
+    /**
+     * Место в листе ожидания (с 1), только для статуса WAITLISTED.
+     */
+    private Long waitlistPosition;
+}
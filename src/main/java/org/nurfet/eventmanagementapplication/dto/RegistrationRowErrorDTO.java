@@ -0,0 +1,22 @@
+package org.nurfet.eventmanagementapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegistrationRowErrorDTO {
+
+    /**
+     * Номер строки данных в запросе (с 1, без заголовка CSV).
+     */
+    private long row;
+
+    private String email;
+
+    private String error;
+}
@@ -0,0 +1,24 @@
+package org.nurfet.eventmanagementapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Пара (мероприятие, участник) для отправки напоминания.
+ */
+@Getter
+@AllArgsConstructor
+public class ReminderDTO {
+
+    private Long eventId;
+
+    private String eventName;
+
+    private LocalDateTime startTime;
+
+    private Long participantId;
+
+    private String email;
+}
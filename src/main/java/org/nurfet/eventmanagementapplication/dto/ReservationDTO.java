@@ -0,0 +1,28 @@
+package org.nurfet.eventmanagementapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationDTO {
+
+    private String token;
+
+    private Long eventId;
+
+    /**
+     * RESERVED, CONFIRMING, CONFIRMED, FAILED или EXPIRED.
+     */
+    private String status;
+
+    private LocalDateTime expiresAt;
+
+    private String error;
+}
@@ -0,0 +1,75 @@
+package org.nurfet.eventmanagementapplication.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Письмо, ожидающее отправки. Тройка (мероприятие, участник, тип письма) уникальна и служит
+ * ключом идемпотентности: повторная постановка того же письма в очередь игнорируется.
+ * У сводок по нескольким мероприятиям мероприятие не указывается, ключом служит пара
+ * (участник, тип письма).
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "email_outbox")
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmailOutboxEntry extends AbstractEntity {
+
+    public enum Status {
+        PENDING, SENT, FAILED
+    }
+
+    private Long eventId;
+
+    @Column(nullable = false)
+    private Long participantId;
+
+    /**
+     * Тип письма, например {@code EVENT_REMINDER_PT1H} - напоминание за час до начала
+     * или {@code EVENT_DIGEST_2025-01-31} - сводка мероприятий на день.
+     */
+    @Column(nullable = false)
+    private String emailType;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * Время следующей попытки. Пока письмо отправляется, сдвигается на срок аренды,
+     * чтобы другие обработчики его не забирали.
+     */
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+}
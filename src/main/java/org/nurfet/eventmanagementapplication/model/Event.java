@@ -2,12 +2,14 @@ package org.nurfet.eventmanagementapplication.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@DynamicUpdate
 @Table(name = "events")
 @Getter
 @Setter
@@ -33,6 +35,20 @@ public class Event extends AbstractEntity {
     )
     private Set<Participant> participants = new HashSet<>();
 
+    /**
+     * Количество зарегистрированных участников. Изменяется только условным UPDATE
+     * в {@link org.nurfet.eventmanagementapplication.repository.EventRepository};
+     * {@link DynamicUpdate} не даёт перезаписать его при сохранении сущности.
+     */
+    @Column(nullable = false)
+    private int registeredCount = 0;
+
+    /**
+     * Регистрация через бронирование мест (режим высокой нагрузки), см. FlashSaleService.
+     */
+    @Column(nullable = false)
+    private boolean flashSale = false;
+
     @Column(nullable = false)
     private boolean deleted = false;
 }
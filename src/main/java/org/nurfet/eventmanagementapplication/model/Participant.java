@@ -3,6 +3,8 @@ package org.nurfet.eventmanagementapplication.model;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -10,6 +12,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
@@ -26,6 +29,12 @@ public class Participant extends AbstractEntity {
 
     private String email;
 
+    /**
+     * Email для поиска и проверки уникальности, см. {@link #normalizeEmail(String)}.
+     */
+    @Column(nullable = false)
+    private String emailNormalized;
+
     private String phone;
 
     @ManyToMany(mappedBy = "participants")
@@ -33,4 +42,14 @@ public class Participant extends AbstractEntity {
 
     @Column(nullable = false)
     private boolean deleted = false;
+
+    @PrePersist
+    @PreUpdate
+    void updateEmailNormalized() {
+        emailNormalized = normalizeEmail(email);
+    }
+
+    public static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
 }
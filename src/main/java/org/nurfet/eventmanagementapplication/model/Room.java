@@ -10,18 +10,27 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Помещение. Помещения почти не меняются, поэтому хранятся в кэше второго уровня Hibernate
+ * (регион {@value #CACHE_REGION}).
+ */
 @Entity
 @Getter
 @Setter
 @Table(name = "rooms")
 @AllArgsConstructor
 @NoArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Room.CACHE_REGION)
 public class Room extends AbstractEntity {
 
+    public static final String CACHE_REGION = "room";
+
     @NotBlank
     private String name;
 
@@ -0,0 +1,42 @@
+package org.nurfet.eventmanagementapplication.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Участник в листе ожидания мероприятия. Записи добавляются запросом INSERT в
+ * {@link org.nurfet.eventmanagementapplication.repository.WaitlistRepository}; позиция
+ * выдаётся последовательностью БД и определяет порядок перевода в участники.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "event_waitlist")
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaitlistEntry extends AbstractEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false)
+    private Event event;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "participant_id", nullable = false)
+    private Participant participant;
+
+    @Column(insertable = false, updatable = false)
+    private Long position;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,49 @@
+package org.nurfet.eventmanagementapplication.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.nurfet.eventmanagementapplication.model.EmailOutboxEntry;
+import org.nurfet.eventmanagementapplication.model.EmailOutboxEntry.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hibernate.cfg.AvailableSettings.JAKARTA_LOCK_TIMEOUT;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxEntry, Long> {
+
+    /**
+     * Выбирает письма, готовые к отправке, с блокировкой строк. Строки, уже заблокированные
+     * другим обработчиком, пропускаются (FOR UPDATE SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT o FROM EmailOutboxEntry o WHERE o.status = :status AND o.nextAttemptAt <= :now " +
+            "ORDER BY o.nextAttemptAt")
+    List<EmailOutboxEntry> findReadyForUpdate(@Param("status") Status status,
+                                              @Param("now") LocalDateTime now,
+                                              Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxEntry o SET o.status = :status, o.sentAt = :now, o.lastError = null WHERE o.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("status") Status status, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxEntry o SET o.nextAttemptAt = :nextAttemptAt, o.lastError = :error WHERE o.id = :id")
+    int scheduleRetry(@Param("id") Long id,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxEntry o SET o.status = :status, o.lastError = :error WHERE o.id = :id")
+    int markFailed(@Param("id") Long id, @Param("status") Status status, @Param("error") String error);
+}
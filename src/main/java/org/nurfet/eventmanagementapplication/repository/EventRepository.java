@@ -1,23 +1,40 @@
 package org.nurfet.eventmanagementapplication.repository;
 
+import org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO;
+import org.nurfet.eventmanagementapplication.dto.EventDTO;
+import org.nurfet.eventmanagementapplication.dto.ReminderDTO;
+import jakarta.persistence.QueryHint;
 import org.nurfet.eventmanagementapplication.model.Event;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
 
-    @Query("SELECT e FROM Event e WHERE e.deleted = false AND e.startTime < :end AND e.endTime > :start")
-    List<Event> findEventsBetweenDates(LocalDateTime start, LocalDateTime end);
+    String EVENT_DTO_SELECT = "SELECT new org.nurfet.eventmanagementapplication.dto.EventDTO(" +
+            "e.id, e.name, e.startTime, e.endTime, r.id, r.name, e.registeredCount, e.flashSale) FROM Event e JOIN e.room r ";
+
+    /**
+     * Число незавершённых мероприятий помещения; один запрос вместо загрузки мероприятий с их помещениями.
+     */
+    @Query("SELECT COUNT(e) FROM Event e WHERE e.room.id = :roomId AND e.deleted = false AND e.endTime > :from")
+    long countActiveByRoomId(@Param("roomId") Long roomId, @Param("from") LocalDateTime from);
 
-    @Query("SELECT e FROM Event e JOIN e.participants p WHERE p.id = :participantId AND e.deleted = false")
-    List<Event> findByParticipantId(Long participantId);
+    @Query("SELECT COUNT(e) FROM Event e JOIN e.participants p " +
+            "WHERE p.id = :participantId AND e.deleted = false AND e.endTime > :from")
+    long countActiveByParticipantId(@Param("participantId") Long participantId, @Param("from") LocalDateTime from);
 
     @Query("SELECT e FROM Event e WHERE e.id = :id AND e.deleted = false")
     Optional<Event> findByIdAndDeletedFalse(@Param("id") Long id);
@@ -25,16 +42,131 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT e FROM Event e WHERE e.room.id = :roomId AND e.deleted = false")
     List<Event> findByRoomIdAndDeletedFalse(@Param("roomId") Long roomId);
 
-    @Query("SELECT e FROM Event e WHERE e.deleted = false")
-    List<Event> findAllByDeletedFalse();
-
-    @Query("SELECT e FROM Event e " +
-            "WHERE e.startTime BETWEEN :start AND :end " +
-            "AND e.deleted = false " +
-            "AND e.startTime > CURRENT_TIMESTAMP " +
-            "ORDER BY e.startTime")
-    List<Event> findUpcomingEvents(
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end
-    );
+    /**
+     * Добавляет участника по первичному ключу (event_id, participant_id).
+     *
+     * @return 0, если участник уже зарегистрирован
+     */
+    @Modifying
+    @Query(value = "INSERT INTO event_participants (event_id, participant_id) VALUES (:eventId, :participantId) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addParticipant(@Param("eventId") Long eventId, @Param("participantId") Long participantId);
+
+    /**
+     * Занимает {@code count} мест на мероприятии, если вместимость помещения позволяет.
+     *
+     * @return 0, если свободных мест недостаточно
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount + :count WHERE e.id = :eventId " +
+            "AND e.registeredCount + :count <= (SELECT r.capacity FROM Room r WHERE r.id = e.room.id)")
+    int incrementRegisteredCount(@Param("eventId") Long eventId, @Param("count") int count);
+
+    @Modifying
+    @Query(value = "DELETE FROM event_participants WHERE event_id = :eventId AND participant_id = :participantId",
+            nativeQuery = true)
+    int removeParticipant(@Param("eventId") Long eventId, @Param("participantId") Long participantId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount - 1 WHERE e.id = :eventId AND e.registeredCount > 0")
+    int decrementRegisteredCount(@Param("eventId") Long eventId);
+
+    /**
+     * Блокирует строку мероприятия до конца транзакции и возвращает число свободных мест.
+     */
+    @Query(value = "SELECT (SELECT r.capacity FROM rooms r WHERE r.id = e.room_id) - e.registered_count " +
+            "FROM events e WHERE e.id = :eventId AND e.deleted = false FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockFreeSeats(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.flashSale = :flashSale WHERE e.id = :eventId AND e.deleted = false")
+    int updateFlashSale(@Param("eventId") Long eventId, @Param("flashSale") boolean flashSale);
+
+    @Query("SELECT r.capacity - e.registeredCount FROM Event e JOIN e.room r " +
+            "WHERE e.id = :eventId AND e.deleted = false AND e.flashSale = true AND e.endTime > CURRENT_TIMESTAMP")
+    Optional<Integer> findFlashSaleFreeSeats(@Param("eventId") Long eventId);
+
+    @Query("SELECT COUNT(e) > 0 FROM Event e WHERE e.id = :id AND e.deleted = false")
+    boolean existsByIdAndDeletedFalse(@Param("id") Long id);
+
+    @Query(EVENT_DTO_SELECT + "WHERE e.deleted = false")
+    List<EventDTO> findAllDTOs();
+
+    @Query(EVENT_DTO_SELECT + "WHERE e.deleted = false AND e.startTime < :end AND e.endTime > :start")
+    List<EventDTO> findDTOsBetweenDates(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query(EVENT_DTO_SELECT + "WHERE e.id = :id AND e.deleted = false")
+    Optional<EventDTO> findDTOByIdAndDeletedFalse(@Param("id") Long id);
+
+    @Query(EVENT_DTO_SELECT + "WHERE e.deleted = false ORDER BY e.startTime, e.id")
+    List<EventDTO> findFirstPage(Pageable pageable);
+
+    @Query(EVENT_DTO_SELECT + "WHERE e.deleted = false AND e.startTime < :end AND e.endTime > :start " +
+            "ORDER BY e.startTime, e.id")
+    List<EventDTO> findFirstPageBetweenDates(@Param("start") LocalDateTime start,
+                                             @Param("end") LocalDateTime end,
+                                             Pageable pageable);
+
+    @Query(EVENT_DTO_SELECT + "WHERE e.deleted = false " +
+            "AND e.startTime >= :cursorStart AND (e.startTime > :cursorStart OR e.id > :cursorId) " +
+            "ORDER BY e.startTime, e.id")
+    List<EventDTO> findPageAfter(@Param("cursorStart") LocalDateTime cursorStart,
+                              @Param("cursorId") Long cursorId,
+                              Pageable pageable);
+
+    @Query(EVENT_DTO_SELECT + "WHERE e.deleted = false AND e.startTime < :end AND e.endTime > :start " +
+            "AND e.startTime >= :cursorStart AND (e.startTime > :cursorStart OR e.id > :cursorId) " +
+            "ORDER BY e.startTime, e.id")
+    List<EventDTO> findPageBetweenDatesAfter(@Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end,
+                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(EVENT_DTO_SELECT + "WHERE e.deleted = false ORDER BY e.startTime, e.id")
+    Stream<EventDTO> streamAllDTOs();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(EVENT_DTO_SELECT + "WHERE e.deleted = false AND e.startTime < :end AND e.endTime > :start " +
+            "ORDER BY e.startTime, e.id")
+    Stream<EventDTO> streamDTOsBetweenDates(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT new org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO(e.id, e.room.id, e.startTime, e.endTime) " +
+            "FROM Event e WHERE e.deleted = false AND e.room IS NOT NULL AND e.endTime >= :from")
+    List<BookingIntervalDTO> findBookingIntervalsEndingAfter(@Param("from") LocalDateTime from);
+
+    /**
+     * Бронирования одного помещения, заканчивающиеся не раньше {@code from}; проекция без загрузки
+     * сущностей мероприятий.
+     */
+    @Query("SELECT new org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO(e.id, e.room.id, e.startTime, e.endTime) " +
+            "FROM Event e WHERE e.deleted = false AND e.room.id = :roomId AND e.endTime >= :from")
+    List<BookingIntervalDTO> findBookingIntervalsEndingAfter(@Param("roomId") Long roomId,
+                                                             @Param("from") LocalDateTime from);
+
+    /**
+     * Мероприятия, начинающиеся в интервале (from, to], из части {@code partitionIndex}
+     * при разбиении по остатку от деления id на {@code partitionCount}.
+     */
+    @Query("SELECT new org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO(e.id, e.room.id, e.startTime, e.endTime) " +
+            "FROM Event e WHERE e.deleted = false AND e.startTime > :from AND e.startTime <= :to " +
+            "AND MOD(e.id, :partitionCount) = :partitionIndex")
+    List<BookingIntervalDTO> findBookingIntervalsStartingBetween(@Param("from") LocalDateTime from,
+                                                                 @Param("to") LocalDateTime to,
+                                                                 @Param("partitionCount") int partitionCount,
+                                                                 @Param("partitionIndex") int partitionIndex);
+
+    /**
+     * Порция участников мероприятия для напоминания, следующих после курсора в порядке participant_id.
+     * Пусто, если мероприятие удалено или время его начала отличается от {@code startTime}.
+     */
+    @Query("SELECT new org.nurfet.eventmanagementapplication.dto.ReminderDTO(" +
+            "e.id, e.name, e.startTime, p.id, p.email) FROM Event e JOIN e.participants p " +
+            "WHERE e.id = :eventId AND e.startTime = :startTime AND e.deleted = false AND p.deleted = false " +
+            "AND p.id > :cursorParticipantId ORDER BY p.id")
+    List<ReminderDTO> findEventRemindersAfter(@Param("eventId") Long eventId,
+                                              @Param("startTime") LocalDateTime startTime,
+                                              @Param("cursorParticipantId") Long cursorParticipantId,
+                                              Pageable pageable);
 }
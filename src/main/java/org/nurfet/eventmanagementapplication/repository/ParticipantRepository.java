@@ -1,5 +1,6 @@
 package org.nurfet.eventmanagementapplication.repository;
 
+import org.nurfet.eventmanagementapplication.dto.ParticipantDTO;
 import org.nurfet.eventmanagementapplication.model.Participant;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -7,13 +8,34 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ParticipantRepository extends JpaRepository<Participant, Long> {
 
-    @Query("SELECT p FROM Participant p WHERE p.deleted = false AND p.email = :email")
-    Optional<Participant> findByEmail(String email);
+    String PARTICIPANT_DTO_SELECT = "SELECT new org.nurfet.eventmanagementapplication.dto.ParticipantDTO(" +
+            "p.id, p.firstName, p.lastName, p.email, p.phone) ";
+
+    /**
+     * Поиск по частичному индексу idx_participants_email_normalized.
+     */
+    @Query("SELECT p FROM Participant p WHERE p.deleted = false AND p.emailNormalized = :emailNormalized")
+    Optional<Participant> findByEmailNormalized(String emailNormalized);
+
+    /**
+     * Добавляет участника, если неудалённого участника с таким email нет.
+     *
+     * @return id добавленного участника или пустое значение, если email уже занят
+     */
+    @Query(value = "INSERT INTO participants (first_name, last_name, email, email_normalized, phone) " +
+            "VALUES (:firstName, :lastName, :email, :emailNormalized, :phone) " +
+            "ON CONFLICT (email_normalized) WHERE deleted = false DO NOTHING RETURNING id", nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("firstName") String firstName,
+                                  @Param("lastName") String lastName,
+                                  @Param("email") String email,
+                                  @Param("emailNormalized") String emailNormalized,
+                                  @Param("phone") String phone);
 
     @Modifying
     @Query("UPDATE Participant p SET p.deleted = true WHERE p.id = :id")
@@ -22,4 +44,11 @@ public interface ParticipantRepository extends JpaRepository<Participant, Long>
     @Query("SELECT p FROM Participant p WHERE p.id = :id AND p.deleted = false")
     Optional<Participant> findByIdAndDeletedFalse(@Param("id") Long id);
 
+    @Query(PARTICIPANT_DTO_SELECT + "FROM Participant p WHERE p.id = :id AND p.deleted = false")
+    Optional<ParticipantDTO> findDTOByIdAndDeletedFalse(@Param("id") Long id);
+
+    @Query(PARTICIPANT_DTO_SELECT + "FROM Event e JOIN e.participants p " +
+            "WHERE e.id = :eventId AND e.deleted = false AND p.deleted = false")
+    List<ParticipantDTO> findDTOsByEventId(@Param("eventId") Long eventId);
+
 }
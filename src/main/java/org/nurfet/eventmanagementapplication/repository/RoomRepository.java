@@ -1,9 +1,13 @@
 package org.nurfet.eventmanagementapplication.repository;
 
+import org.nurfet.eventmanagementapplication.dto.RoomDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.nurfet.eventmanagementapplication.model.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -13,17 +17,45 @@ import java.util.Optional;
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
 
-    @Query("SELECT r FROM Room r WHERE r.deleted = false AND r.id NOT IN " +
-            "(SELECT e.room.id FROM Event e WHERE e.deleted = false AND " +
-            "((e.startTime <= :startTime AND e.endTime >= :startTime) OR " +
-            "(e.startTime <= :endTime AND e.endTime >= :endTime) OR " +
-            "(e.startTime >= :startTime AND e.endTime <= :endTime)))")
-    List<Room> findAvailableRooms(LocalDateTime startTime, LocalDateTime endTime);
+    String ROOM_DTO_SELECT = "SELECT new org.nurfet.eventmanagementapplication.dto.RoomDTO(r.id, r.name, r.capacity) " +
+            "FROM Room r ";
 
+    /**
+     * Помещения без бронирований, пересекающихся с {@code [startTime, endTime]} (касание границами
+     * считается пересечением). Подзапрос выполняется по индексу idx_events_room_time.
+     */
+    @Query(ROOM_DTO_SELECT + "WHERE r.deleted = false AND r.capacity >= :minCapacity AND NOT EXISTS " +
+            "(SELECT 1 FROM Event e WHERE e.room = r AND e.deleted = false " +
+            "AND e.startTime <= :endTime AND e.endTime >= :startTime)")
+    List<RoomDTO> findAvailableRooms(LocalDateTime startTime, LocalDateTime endTime, int minCapacity);
+
+    @Query(ROOM_DTO_SELECT + "WHERE r.deleted = false")
+    List<RoomDTO> findAllDTOs();
+
+    @Query(ROOM_DTO_SELECT + "WHERE r.deleted = false AND r.capacity >= :minCapacity")
+    List<RoomDTO> findDTOsWithCapacityAtLeast(int minCapacity);
+
+    @Query(ROOM_DTO_SELECT + "WHERE r.id = :id AND r.deleted = false")
+    Optional<RoomDTO> findDTOByIdAndDeletedFalse(Long id);
+
+    /**
+     * Массовое обновление через JPQL: Hibernate очищает регион помещений в кэше второго уровня
+     * и помечает устаревшими закэшированные запросы по таблице rooms.
+     */
     @Modifying
     @Query("UPDATE Room r SET r.deleted = true WHERE r.id = :id")
     void softDelete(Long id);
 
+    /**
+     * Результат запроса хранится в кэше запросов Hibernate (id помещения), само помещение -
+     * в кэше второго уровня, поэтому повторный вызов не обращается к БД, пока таблица rooms
+     * не изменится.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT r FROM Room r WHERE r.id = :id AND r.deleted = false")
     Optional<Room> findByIdAndDeletedFalse(Long id);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Room> findAll();
 }
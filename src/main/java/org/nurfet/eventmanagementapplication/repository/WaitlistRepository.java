@@ -0,0 +1,58 @@
+package org.nurfet.eventmanagementapplication.repository;
+
+import org.nurfet.eventmanagementapplication.model.WaitlistEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    /**
+     * Ставит участника в конец листа ожидания.
+     *
+     * @return 0, если участник уже в листе ожидания
+     */
+    @Modifying
+    @Query(value = "INSERT INTO event_waitlist (event_id, participant_id) VALUES (:eventId, :participantId) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int enqueue(@Param("eventId") Long eventId, @Param("participantId") Long participantId);
+
+    @Query("SELECT w.position FROM WaitlistEntry w WHERE w.event.id = :eventId AND w.participant.id = :participantId")
+    Optional<Long> findPosition(@Param("eventId") Long eventId, @Param("participantId") Long participantId);
+
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.event.id = :eventId AND w.position <= :position")
+    long countUpToPosition(@Param("eventId") Long eventId, @Param("position") Long position);
+
+    /**
+     * Первые записи листа ожидания (сканирование индекса по (event_id, position)).
+     */
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.event.id = :eventId ORDER BY w.position")
+    List<WaitlistEntry> findHead(@Param("eventId") Long eventId, Pageable pageable);
+
+    /**
+     * Предстоящие мероприятия помещения с непустым листом ожидания.
+     */
+    @Query("SELECT DISTINCT w.event.id FROM WaitlistEntry w WHERE w.event.room.id = :roomId " +
+            "AND w.event.deleted = false AND w.event.endTime > :from")
+    List<Long> findWaitingEventIdsByRoomId(@Param("roomId") Long roomId, @Param("from") LocalDateTime from);
+
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.event.id = :eventId AND w.participant.id = :participantId")
+    int deleteByEventIdAndParticipantId(@Param("eventId") Long eventId, @Param("participantId") Long participantId);
+
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.participant.id = :participantId")
+    int deleteByParticipantId(@Param("participantId") Long participantId);
+}
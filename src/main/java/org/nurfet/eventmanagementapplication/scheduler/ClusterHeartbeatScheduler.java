@@ -0,0 +1,27 @@
+package org.nurfet.eventmanagementapplication.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.service.SchedulerLeaseService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Периодическая отметка узла в списке работающих узлов.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterHeartbeatScheduler {
+
+    private final SchedulerLeaseService leaseService;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${scheduler.heartbeat-interval:PT10S}")
+    public void heartbeat() {
+        try {
+            leaseService.heartbeat();
+        } catch (RuntimeException e) {
+            log.error("Не удалось отметить узел {}", leaseService.getNodeId(), e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.nurfet.eventmanagementapplication.scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.model.EmailOutboxEntry;
+import org.nurfet.eventmanagementapplication.service.EmailDispatcher;
+import org.nurfet.eventmanagementapplication.service.EmailOutboxService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Разбирает очередь исходящих писем: забирает пачку, отправляет её через {@link EmailDispatcher}
+ * и записывает результаты, пока в очереди есть готовые к отправке письма.
+ * <p>
+ * Метрики: {@code email.outbox.drain} - длительность разбора очереди,
+ * {@code email.outbox.sent} и {@code email.outbox.failed} - отправленные письма и неудачные попытки.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxWorker {
+
+    private final EmailOutboxService outboxService;
+    private final EmailDispatcher emailDispatcher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${email.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:PT5S}")
+    public void drainOutbox() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<EmailOutboxEntry> batch;
+        do {
+            batch = outboxService.claim(batchSize);
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } while (batch.size() == batchSize);
+        sample.stop(meterRegistry.timer("email.outbox.drain"));
+    }
+
+    private void send(List<EmailOutboxEntry> batch) {
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        Map<EmailOutboxEntry, String> failures = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> dispatched = new ArrayList<>(batch.size());
+
+        for (EmailOutboxEntry entry : batch) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(entry.getRecipient());
+            message.setSubject(entry.getSubject());
+            message.setText(entry.getBody());
+
+            dispatched.add(emailDispatcher.submit(message).handle((result, e) -> {
+                if (e == null) {
+                    synchronized (sentIds) {
+                        sentIds.add(entry.getId());
+                    }
+                } else {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    failures.put(entry, String.valueOf(cause.getMessage()));
+                }
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(dispatched.toArray(CompletableFuture[]::new)).join();
+
+        outboxService.complete(sentIds, failures);
+        meterRegistry.counter("email.outbox.sent").increment(sentIds.size());
+        meterRegistry.counter("email.outbox.failed").increment(failures.size());
+        log.info("Очередь писем: отправлено {}, ошибок {}", sentIds.size(), failures.size());
+    }
+}
@@ -1,48 +1,44 @@
 package org.nurfet.eventmanagementapplication.scheduler;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.nurfet.eventmanagementapplication.model.Event;
-import org.nurfet.eventmanagementapplication.model.Participant;
-import org.nurfet.eventmanagementapplication.repository.EventRepository;
-import org.nurfet.eventmanagementapplication.service.EmailService;
+import org.nurfet.eventmanagementapplication.service.ReminderService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-
-@Slf4j
+/**
+ * Запуск обработки напоминаний: частые такты колеса таймеров и периодическая подгрузка
+ * мероприятий, попадающих в горизонт планирования. В режиме {@code reminder.mode=digest}
+ * вместо них работает {@link ReminderDigestScheduler}.
+ * <p>
+ * Метрики: {@code reminder.run} - длительность запусков (тег {@code phase}),
+ * {@code reminder.events.scanned} - загружено мероприятий, {@code reminder.emails.enqueued} -
+ * поставлено в очередь писем.
+ */
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "reminder.mode", havingValue = "event", matchIfMissing = true)
 public class EventReminderScheduler {
 
-    private final EventRepository eventRepository;
-    private final EmailService emailService;
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private final ReminderService reminderService;
 
-    @Scheduled(cron = "0 0 8 * * *") // Runs at 8:00 AM every day
-    public void sendEventReminders() {
-        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0);
-        LocalDateTime end = start.plusDays(1);
+    private final MeterRegistry meterRegistry;
 
-        List<Event> upcomingEvents = eventRepository.findEventsBetweenDates(start, end);
+    @Scheduled(initialDelay = 0, fixedDelayString = "${reminder.load-interval:PT10M}")
+    public void loadUpcomingEvents() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int loaded = reminderService.loadUpcoming();
+        sample.stop(meterRegistry.timer("reminder.run", "phase", "load"));
+        meterRegistry.counter("reminder.events.scanned").increment(loaded);
+    }
 
-        for (Event event : upcomingEvents) {
-            for (Participant participant : event.getParticipants()) {
-                try {
-                    emailService.sendEventReminder(
-                            participant.getEmail(),
-                            event.getName(),
-                            event.getStartTime().format(formatter)
-                    );
-                    log.info("Напоминание о событии {} отправлено участнику {}", event.getName(), participant.getEmail());
-                } catch (Exception e) {
-                    log.error("Не удалось отправить напоминание о событии {} участнику {}",
-                            event.getName(), participant.getEmail(), e);
-                }
-            }
-        }
+    @Scheduled(fixedDelayString = "${reminder.tick:PT10S}")
+    public void fireDueReminders() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int enqueued = reminderService.tick();
+        sample.stop(meterRegistry.timer("reminder.run", "phase", "tick"));
+        meterRegistry.counter("reminder.emails.enqueued", "mode", "event").increment(enqueued);
     }
 }
@@ -0,0 +1,82 @@
+package org.nurfet.eventmanagementapplication.scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.service.ReminderDigestService;
+import org.nurfet.eventmanagementapplication.service.SchedulerLeaseService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ежедневная отправка сводок напоминаний о мероприятиях следующего дня. При нескольких узлах
+ * сводки формирует узел, получивший аренду задачи; аренда продлевается перед каждой порцией,
+ * а сводки фиксируются вместе с отметкой о завершённом дне только при неизменном номере аренды.
+ * <p>
+ * Если держатель аренды упал во время запуска по расписанию, сводки досылаются проверкой
+ * раз в {@code reminder.digest.catch-up-interval}: день последнего срабатывания расписания,
+ * не отмеченный завершённым, обрабатывается заново узлом, получившим аренду после её истечения.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "reminder.mode", havingValue = "digest")
+public class ReminderDigestScheduler {
+
+    static final String LEASE_NAME = "reminder-digest";
+
+    private final ReminderDigestService digestService;
+
+    private final SchedulerLeaseService leaseService;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${reminder.digest.cron:0 0 18 * * *}")
+    private String cron;
+
+    @Scheduled(cron = "${reminder.digest.cron:0 0 18 * * *}")
+    public void enqueueTomorrowDigests() {
+        enqueueDigests(LocalDate.now().plusDays(1));
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${reminder.digest.catch-up-interval:PT5M}")
+    public void catchUpMissedDigests() {
+        LocalDate day = lastFireTime(LocalDateTime.now()).toLocalDate().plusDays(1);
+        if (!LocalDate.now().isBefore(day)
+                || leaseService.completedRun(LEASE_NAME).filter(day.toString()::equals).isPresent()) {
+            return;
+        }
+        log.info("Сводки напоминаний на {} не были завершены, повторный запуск", day);
+        enqueueDigests(day);
+    }
+
+    private void enqueueDigests(LocalDate day) {
+        leaseService.tryAcquire(LEASE_NAME).ifPresentOrElse(
+                token -> {
+                    Timer.Sample sample = Timer.start(meterRegistry);
+                    int enqueued = digestService.enqueueDigests(day, LEASE_NAME, token);
+                    sample.stop(meterRegistry.timer("reminder.run", "phase", "digest"));
+                    meterRegistry.counter("reminder.emails.enqueued", "mode", "digest").increment(enqueued);
+                },
+                () -> log.debug("Сводки напоминаний формирует другой узел"));
+    }
+
+    /**
+     * Последнее срабатывание расписания не позже {@code now}.
+     */
+    LocalDateTime lastFireTime(LocalDateTime now) {
+        CronExpression expression = CronExpression.parse(cron);
+        LocalDateTime last = now.minusDays(1);
+        for (LocalDateTime next = expression.next(last); next != null && !next.isAfter(now); next = expression.next(next)) {
+            last = next;
+        }
+        return last;
+    }
+}
@@ -0,0 +1,359 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.dto.BulkRegistrationResultDTO;
+import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
+import org.nurfet.eventmanagementapplication.dto.RegistrationRowErrorDTO;
+import org.nurfet.eventmanagementapplication.exception.ResourceNotFoundException;
+import org.nurfet.eventmanagementapplication.model.Event;
+import org.nurfet.eventmanagementapplication.model.Participant;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Массовая регистрация участников на мероприятие из JSON-массива или CSV.
+ * <p>
+ * Строки читаются из запроса по одной, проверяются и сразу передаются в PostgreSQL командой
+ * {@code COPY} во временную таблицу registration_staging. Добавление участников, проверка
+ * совпадения данных уже известных участников, регистрация и подсчёт мест выполняются
+ * несколькими запросами по этой таблице, поэтому расход памяти не зависит от числа строк:
+ * в памяти хранятся текущая строка, буфер {@code COPY} и не больше
+ * {@code registration.bulk.max-errors} ошибок.
+ * <p>
+ * Места занимают строки в порядке запроса; строкам, которым места не хватило, возвращается
+ * ошибка (в лист ожидания они не ставятся).
+ */
+@Slf4j
+@Service
+@Timed("app.service")
+@RequiredArgsConstructor
+public class BulkRegistrationService {
+
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_PHONE_LENGTH = 20;
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE registration_staging (
+                line BIGINT NOT NULL,
+                first_name VARCHAR(255) NOT NULL,
+                last_name VARCHAR(255) NOT NULL,
+                email VARCHAR(255) NOT NULL,
+                email_normalized VARCHAR(255) NOT NULL,
+                phone VARCHAR(20),
+                participant_id BIGINT,
+                registered BOOLEAN NOT NULL DEFAULT FALSE,
+                error TEXT
+            ) ON COMMIT DROP""";
+
+    private static final String COPY_STAGING_SQL = "COPY registration_staging " +
+            "(line, first_name, last_name, email, email_normalized, phone) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String MARK_DUPLICATES_SQL = """
+            UPDATE registration_staging s SET error = 'Email повторяется в запросе'
+            FROM (SELECT line, row_number() OVER (PARTITION BY email_normalized ORDER BY line) AS position
+                  FROM registration_staging) d
+            WHERE d.line = s.line AND d.position > 1""";
+
+    private static final String INSERT_PARTICIPANTS_SQL = """
+            INSERT INTO participants (first_name, last_name, email, email_normalized, phone)
+            SELECT first_name, last_name, email, email_normalized, phone
+            FROM registration_staging WHERE error IS NULL ORDER BY line
+            ON CONFLICT (email_normalized) WHERE deleted = false DO NOTHING
+            RETURNING email_normalized""";
+
+    private static final String LINK_PARTICIPANTS_SQL = """
+            UPDATE registration_staging s SET participant_id = p.id,
+                error = CASE WHEN p.first_name <> s.first_name OR p.last_name <> s.last_name
+                                  OR p.phone IS DISTINCT FROM s.phone
+                             THEN 'Участник с таким email уже существует. Указанные данные не совпадают с существующими'
+                        END
+            FROM participants p
+            WHERE p.email_normalized = s.email_normalized AND p.deleted = false AND s.error IS NULL""";
+
+    private static final String LOCK_FREE_SEATS_SQL = """
+            SELECT r.capacity - e.registered_count FROM events e JOIN rooms r ON r.id = e.room_id
+            WHERE e.id = ? FOR UPDATE OF e""";
+
+    private static final String MARK_ALREADY_REGISTERED_SQL = """
+            UPDATE registration_staging s SET error = 'Участник уже зарегистрирован на это мероприятие'
+            WHERE s.error IS NULL AND EXISTS (SELECT 1 FROM event_participants ep
+                                              WHERE ep.event_id = ? AND ep.participant_id = s.participant_id)""";
+
+    private static final String REGISTER_SQL = """
+            WITH accepted AS (
+                SELECT participant_id FROM registration_staging WHERE error IS NULL ORDER BY line LIMIT ?
+            ), inserted AS (
+                INSERT INTO event_participants (event_id, participant_id)
+                SELECT ?, participant_id FROM accepted
+                ON CONFLICT DO NOTHING
+                RETURNING participant_id
+            )
+            UPDATE registration_staging s SET registered = true
+            FROM inserted i WHERE s.participant_id = i.participant_id""";
+
+    private static final String MARK_NO_SEATS_SQL = "UPDATE registration_staging " +
+            "SET error = 'На мероприятии не осталось свободных мест' WHERE error IS NULL AND NOT registered";
+
+    private static final String SELECT_ERRORS_SQL = "SELECT line, email, error FROM registration_staging " +
+            "WHERE error IS NOT NULL ORDER BY line LIMIT ?";
+
+    private static final String COUNT_ERRORS_SQL = "SELECT COUNT(*) FROM registration_staging WHERE error IS NOT NULL";
+
+    private final EventRepository eventRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final ParticipantEmailFilter emailFilter;
+
+    private final CacheInvalidator cacheInvalidator;
+
+    @Value("${registration.bulk.max-errors:1000}")
+    private int maxErrors;
+
+    /**
+     * Регистрирует участников из JSON-массива объектов {@link EventRegistrationDTO}.
+     */
+    @Transactional
+    public BulkRegistrationResultDTO registerJson(Long eventId, InputStream body) {
+        try {
+            MappingIterator<EventRegistrationDTO> rows = objectMapper.readerFor(EventRegistrationDTO.class).readValues(body);
+            return register(eventId, () -> rows.hasNextValue() ? rows.nextValue() : null);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Некорректный JSON: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Регистрирует участников из CSV, см. {@link CsvRegistrationReader}.
+     */
+    @Transactional
+    public BulkRegistrationResultDTO registerCsv(Long eventId, InputStream body) {
+        try {
+            CsvRegistrationReader rows = new CsvRegistrationReader(
+                    new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+            return register(eventId, rows::read);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Не удалось прочитать CSV: " + e.getMessage());
+        }
+    }
+
+    private BulkRegistrationResultDTO register(Long eventId, RowReader rows) {
+        long started = System.nanoTime();
+        checkEvent(eventId);
+
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+        RowErrors rejected = new RowErrors(maxErrors);
+        long totalRows = copyToStaging(rows, rejected);
+
+        jdbcTemplate.execute("ANALYZE registration_staging");
+        jdbcTemplate.update(MARK_DUPLICATES_SQL);
+        jdbcTemplate.query(INSERT_PARTICIPANTS_SQL, resultSet -> {
+            emailFilter.add(resultSet.getString(1));
+        });
+        jdbcTemplate.update(LINK_PARTICIPANTS_SQL);
+
+        Integer freeSeats = jdbcTemplate.queryForObject(LOCK_FREE_SEATS_SQL, Integer.class, eventId);
+        jdbcTemplate.update(MARK_ALREADY_REGISTERED_SQL, eventId);
+        int registered = jdbcTemplate.update(REGISTER_SQL, Math.max(0, freeSeats), eventId);
+        jdbcTemplate.update(MARK_NO_SEATS_SQL);
+        if (registered > 0) {
+            jdbcTemplate.update("UPDATE events SET registered_count = registered_count + ? WHERE id = ?",
+                    registered, eventId);
+            cacheInvalidator.evictEvent(eventId);
+        }
+
+        List<RegistrationRowErrorDTO> stagingErrors = jdbcTemplate.query(SELECT_ERRORS_SQL,
+                (resultSet, rowNum) -> new RegistrationRowErrorDTO(
+                        resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3)),
+                maxErrors);
+        Long stagingErrorCount = jdbcTemplate.queryForObject(COUNT_ERRORS_SQL, Long.class);
+
+        List<RegistrationRowErrorDTO> errors = rejected.mergeWith(stagingErrors);
+        long errorCount = rejected.count() + stagingErrorCount;
+        log.info("Массовая регистрация на мероприятие {}: строк {}, зарегистрировано {}, ошибок {} за {} мс",
+                eventId, totalRows, registered, errorCount, (System.nanoTime() - started) / 1_000_000);
+        return new BulkRegistrationResultDTO(totalRows, registered, errorCount, errors, errorCount > errors.size());
+    }
+
+    private void checkEvent(Long eventId) {
+        Event event = eventRepository.findByIdAndDeletedFalse(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Событие не найдено"));
+
+        if (event.getEndTime().isBefore(LocalDateTime.now())) {
+            throw new IllegalStateException("Невозможно зарегистрироваться на прошедшее мероприятие");
+        }
+
+        if (event.isFlashSale()) {
+            throw new IllegalStateException("Регистрация на мероприятие проводится через бронирование мест");
+        }
+    }
+
+    /**
+     * Читает строки запроса и передаёт прошедшие проверку в registration_staging.
+     *
+     * @return число прочитанных строк
+     */
+    private long copyToStaging(RowReader rows, RowErrors rejected) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING_SQL);
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+            long line = 0;
+            try {
+                while (true) {
+                    EventRegistrationDTO row;
+                    try {
+                        row = rows.read();
+                    } catch (IllegalArgumentException e) {
+                        rejected.add(++line, null, e.getMessage());
+                        continue;
+                    }
+                    if (row == null) {
+                        break;
+                    }
+                    line++;
+
+                    String error = validate(row);
+                    if (error != null) {
+                        rejected.add(line, row.getEmail(), error);
+                        continue;
+                    }
+                    appendCsv(buffer, line, row);
+                    if (buffer.length() >= COPY_BUFFER_CHARS) {
+                        writeToCopy(copyIn, buffer);
+                    }
+                }
+                writeToCopy(copyIn, buffer);
+                copyIn.endCopy();
+                return line;
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Не удалось прочитать запрос: " + e.getMessage());
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+    }
+
+    private String validate(EventRegistrationDTO row) {
+        Set<ConstraintViolation<EventRegistrationDTO>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (row.getFirstName().length() > MAX_NAME_LENGTH || row.getLastName().length() > MAX_NAME_LENGTH
+                || row.getEmail().length() > MAX_NAME_LENGTH
+                || (row.getPhone() != null && row.getPhone().length() > MAX_PHONE_LENGTH)) {
+            return "Слишком длинное значение поля";
+        }
+        return null;
+    }
+
+    private static void appendCsv(StringBuilder buffer, long line, EventRegistrationDTO row) {
+        buffer.append(line).append(',');
+        appendQuoted(buffer, row.getFirstName()).append(',');
+        appendQuoted(buffer, row.getLastName()).append(',');
+        appendQuoted(buffer, row.getEmail()).append(',');
+        appendQuoted(buffer, Participant.normalizeEmail(row.getEmail())).append(',');
+        if (row.getPhone() != null) {
+            appendQuoted(buffer, row.getPhone());
+        }
+        buffer.append('\n');
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder buffer, String value) {
+        return buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+
+        /**
+         * @return очередная строка или {@code null}, если строки закончились
+         * @throws IllegalArgumentException если строка не разбирается, чтение можно продолжить
+         * @throws IOException если запрос не читается дальше (в том числе некорректный JSON)
+         */
+        EventRegistrationDTO read() throws IOException;
+    }
+
+    /**
+     * Ошибки строк, отклонённых до передачи в БД: хранятся первые {@code limit}, остальные
+     * только подсчитываются.
+     */
+    private static final class RowErrors {
+
+        private final int limit;
+
+        private final List<RegistrationRowErrorDTO> errors = new ArrayList<>();
+
+        private long count;
+
+        private RowErrors(int limit) {
+            this.limit = limit;
+        }
+
+        void add(long line, String email, String error) {
+            count++;
+            if (errors.size() < limit) {
+                errors.add(new RegistrationRowErrorDTO(line, email, error));
+            }
+        }
+
+        long count() {
+            return count;
+        }
+
+        /**
+         * Объединяет с ошибками из БД в порядке строк и оставляет первые {@code limit}.
+         */
+        List<RegistrationRowErrorDTO> mergeWith(List<RegistrationRowErrorDTO> other) {
+            List<RegistrationRowErrorDTO> merged = new ArrayList<>(Math.min(limit, errors.size() + other.size()));
+            int i = 0;
+            int j = 0;
+            while (merged.size() < limit && (i < errors.size() || j < other.size())) {
+                if (j >= other.size() || (i < errors.size() && errors.get(i).getRow() < other.get(j).getRow())) {
+                    merged.add(errors.get(i++));
+                } else {
+                    merged.add(other.get(j++));
+                }
+            }
+            return merged;
+        }
+    }
+}
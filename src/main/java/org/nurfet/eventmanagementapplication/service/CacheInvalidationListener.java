@@ -0,0 +1,129 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Приём сообщений об изменении данных от других узлов ({@code LISTEN cache_invalidation}).
+ * <p>
+ * Слушатель держит собственное соединение с БД вне пула. Сообщения, пришедшие в течение
+ * {@code cache.invalidation.coalesce-window} после первого, применяются одной пачкой без
+ * повторов. После потери соединения кэши узла очищаются полностью: сообщения за время
+ * переподключения могли быть пропущены.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener {
+
+    private static final int POLL_TIMEOUT_MS = 1_000;
+
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final CacheInvalidator cacheInvalidator;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.invalidation.coalesce-window:PT0.05S}")
+    private Duration coalesceWindow;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private Thread thread;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CacheInvalidator.CHANNEL);
+                }
+                cacheInvalidator.evictAllLocally();
+                log.info("Подписка на изменения данных других узлов установлена");
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    Set<String> payloads = new LinkedHashSet<>();
+                    if (receive(pgConnection, POLL_TIMEOUT_MS, payloads)) {
+                        long deadline = System.nanoTime() + coalesceWindow.toNanos();
+                        long remaining;
+                        while ((remaining = deadline - System.nanoTime()) > 0) {
+                            receive(pgConnection, (int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)), payloads);
+                        }
+                        cacheInvalidator.applyRemote(payloads);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Потеряна подписка на изменения данных, переподключение через {} мс",
+                            RECONNECT_DELAY_MS, e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private static boolean receive(PGConnection connection, int timeoutMs, Set<String> payloads) throws SQLException {
+        PGNotification[] notifications = connection.getNotifications(timeoutMs);
+        if (notifications == null || notifications.length == 0) {
+            return false;
+        }
+        for (PGNotification notification : notifications) {
+            payloads.add(notification.getParameter());
+        }
+        return true;
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.config.CacheConfig;
+import org.nurfet.eventmanagementapplication.model.Room;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import static org.nurfet.eventmanagementapplication.service.TransactionCallbacks.afterCommit;
+
+/**
+ * Удаление записей кэшей чтения после изменения данных. Записи удаляются после фиксации
+ * транзакции, чтобы параллельный запрос не загрузил в кэш ещё не зафиксированные данные
+ * и не вернул прежние после отката.
+ * <p>
+ * Остальные узлы узнают об изменении из сообщения {@code pg_notify} в канал
+ * {@value #CHANNEL}, которое отправляется в той же транзакции и поэтому доставляется только
+ * после её фиксации. Сообщения принимает {@link CacheInvalidationListener}.
+ * <p>
+ * Кэш второго уровня и кэш запросов Hibernate тоже локальны для узла: на своём узле Hibernate
+ * сбрасывает их сам, а по сообщению другого узла помещение удаляется из региона
+ * {@value Room#CACHE_REGION} и очищается кэш запросов.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidator {
+
+    static final String CHANNEL = "cache_invalidation";
+
+    private final CacheManager cacheManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean publishEnabled;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Что изменилось. Переименование помещения отличается от прочих изменений, так как название
+     * помещения входит в представление мероприятий.
+     */
+    enum Target {
+        EVENT, ROOM, ROOM_RENAMED, PARTICIPANT
+    }
+
+    /**
+     * Мероприятие изменено: время, помещение, число участников или режим регистрации.
+     */
+    public void evictEvent(Long eventId) {
+        invalidate(Target.EVENT, eventId);
+    }
+
+    /**
+     * Помещение создано, изменено или удалено. Если изменилось название, удаляются и все
+     * мероприятия.
+     */
+    public void evictRoom(Long roomId, boolean nameChanged) {
+        invalidate(nameChanged ? Target.ROOM_RENAMED : Target.ROOM, roomId);
+    }
+
+    public void evictParticipant(Long participantId) {
+        invalidate(Target.PARTICIPANT, participantId);
+    }
+
+    /**
+     * Применяет сообщения других узлов. Сообщения этого узла пропускаются: его кэш уже обновлён.
+     */
+    void applyRemote(Collection<String> payloads) {
+        int applied = 0;
+        for (String payload : payloads) {
+            String[] parts = payload.split(":");
+            if (parts.length != 3) {
+                log.warn("Некорректное сообщение об изменении данных: {}", payload);
+                continue;
+            }
+            if (!parts[0].equals(nodeId)) {
+                Target target = Target.valueOf(parts[1]);
+                Long id = Long.valueOf(parts[2]);
+                evictLocally(target, id);
+                if (target == Target.ROOM || target == Target.ROOM_RENAMED) {
+                    evictHibernateRoom(id);
+                }
+                applied++;
+            }
+        }
+        log.debug("Применено сообщений об изменении данных: {} из {}", applied, payloads.size());
+    }
+
+    /**
+     * Очищает все кэши узла, например после переподключения, когда сообщения могли быть пропущены.
+     */
+    void evictAllLocally() {
+        cacheManager.getCacheNames().forEach(this::clear);
+        hibernateCache().evictEntityData(Room.class);
+        hibernateCache().evictQueryRegions();
+    }
+
+    private void invalidate(Target target, Long id) {
+        afterCommit(() -> evictLocally(target, id));
+        if (publishEnabled) {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, nodeId + ":" + target + ":" + id);
+        }
+    }
+
+    private void evictLocally(Target target, Long id) {
+        switch (target) {
+            case EVENT -> evict(CacheConfig.EVENTS, id);
+            case ROOM, ROOM_RENAMED -> {
+                evict(CacheConfig.ROOMS, id);
+                clear(CacheConfig.ROOM_LIST);
+                if (target == Target.ROOM_RENAMED) {
+                    clear(CacheConfig.EVENTS);
+                }
+            }
+            case PARTICIPANT -> evict(CacheConfig.PARTICIPANTS, id);
+        }
+    }
+
+    /**
+     * Без этого узел до истечения записи (1 ч) бронировал бы мероприятия в удалённом помещении
+     * или в помещении с прежней вместимостью: закэшированный результат запроса проверяется
+     * только по меткам изменения таблиц этого узла.
+     */
+    private void evictHibernateRoom(Long roomId) {
+        org.hibernate.Cache cache = hibernateCache();
+        cache.evictEntityData(Room.class, roomId);
+        cache.evictQueryRegions();
+    }
+
+    private org.hibernate.Cache hibernateCache() {
+        return entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
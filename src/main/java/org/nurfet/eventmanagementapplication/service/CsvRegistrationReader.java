@@ -0,0 +1,125 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Построчное чтение регистраций из CSV. Первая строка - заголовок с колонками
+ * firstName, lastName, email и phone в любом порядке (допускается запись через подчёркивание).
+ * Поля могут быть заключены в двойные кавычки, кавычка внутри поля удваивается; перевод строки
+ * внутри поля не поддерживается.
+ * <p>
+ * В памяти хранится только текущая строка.
+ */
+final class CsvRegistrationReader {
+
+    private static final List<String> COLUMNS = List.of("firstname", "lastname", "email", "phone");
+
+    private final BufferedReader reader;
+
+    /**
+     * Номер колонки файла для каждой из {@link #COLUMNS}, -1 - колонки нет.
+     */
+    private final int[] positions = new int[COLUMNS.size()];
+
+    private int width;
+
+    CsvRegistrationReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        readHeader();
+    }
+
+    /**
+     * @return очередная регистрация или {@code null}, если строки закончились
+     * @throws IllegalArgumentException если строка не разбирается; строка при этом пропущена
+     */
+    EventRegistrationDTO read() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        List<String> fields = parseLine(line);
+        if (fields.size() != width) {
+            throw new IllegalArgumentException(
+                    String.format("Ожидается полей: %d, получено: %d", width, fields.size()));
+        }
+        return new EventRegistrationDTO(field(fields, 0), field(fields, 1), field(fields, 2), field(fields, 3));
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Пустой CSV: ожидается заголовок " + String.join(",", COLUMNS));
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+
+        List<String> names = parseLine(header);
+        width = names.size();
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            positions[i] = -1;
+        }
+        for (int position = 0; position < names.size(); position++) {
+            String name = names.get(position).replace("_", "").trim().toLowerCase(Locale.ROOT);
+            int column = COLUMNS.indexOf(name);
+            if (column >= 0) {
+                positions[column] = position;
+            }
+        }
+        for (int i = 0; i < 3; i++) {
+            if (positions[i] < 0) {
+                throw new IllegalArgumentException("В заголовке CSV нет колонки " + COLUMNS.get(i));
+            }
+        }
+    }
+
+    private String field(List<String> fields, int column) {
+        if (positions[column] < 0) {
+            return null;
+        }
+        String value = fields.get(positions[column]);
+        return value.isEmpty() ? null : value;
+    }
+
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Незакрытая кавычка в строке CSV");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
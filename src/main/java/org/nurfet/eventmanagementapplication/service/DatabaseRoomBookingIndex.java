@@ -0,0 +1,57 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import lombok.RequiredArgsConstructor;
+import org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO;
+import org.nurfet.eventmanagementapplication.model.Event;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Проверка пересечений перебором всех активных мероприятий помещения из базы данных.
+ * Используется как резервный вариант при {@code booking.index=database}.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.index", havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseRoomBookingIndex implements RoomBookingIndex {
+
+    private final EventRepository eventRepository;
+
+    @Override
+    public boolean isOccupied(Long roomId, Long excludedEventId, LocalDateTime startTime, LocalDateTime endTime) {
+        List<Event> eventsInRoom = eventRepository.findByRoomIdAndDeletedFalse(roomId);
+
+        return eventsInRoom.stream()
+                .filter(event -> excludedEventId == null || !event.getId().equals(excludedEventId))
+                .anyMatch(event ->
+                        (startTime.isBefore(event.getEndTime()) || startTime.equals(event.getEndTime())) &&
+                                (endTime.isAfter(event.getStartTime()) || endTime.equals(event.getStartTime()))
+                );
+    }
+
+    @Override
+    public List<BookingIntervalDTO> getBookings(Long roomId, LocalDateTime from, LocalDateTime to) {
+        return eventRepository.findByRoomIdAndDeletedFalse(roomId).stream()
+                .filter(event -> !event.getEndTime().isBefore(from) && !event.getStartTime().isAfter(to))
+                .sorted(Comparator.comparing(Event::getStartTime).thenComparing(Event::getId))
+                .map(event -> new BookingIntervalDTO(event.getId(), roomId, event.getStartTime(), event.getEndTime()))
+                .toList();
+    }
+
+    @Override
+    public void onEventSaved(Event event) {
+    }
+
+    @Override
+    public void onEventDeleted(Event event) {
+    }
+
+    @Override
+    public void invalidateRoom(Long roomId) {
+    }
+}
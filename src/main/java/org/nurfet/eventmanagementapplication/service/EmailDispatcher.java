@@ -0,0 +1,199 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Параллельная отправка писем. Письма распределяются по нескольким очередям ограниченного
+ * размера («полосам»), каждую обслуживает свой поток: он забирает из очереди до {@code batchSize}
+ * писем и отправляет их одним вызовом {@link JavaMailSender#send(SimpleMailMessage...)}, то есть
+ * через одно SMTP-соединение.
+ * <p>
+ * Если SMTP-сервер замедляется, очереди заполняются и {@link #submit(SimpleMailMessage)}
+ * блокирует вызывающий поток, пока в одной из них не освободится место. После остановки
+ * письма не принимаются: результат завершается ошибкой.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailDispatcher {
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final JavaMailSender mailSender;
+
+    @Value("${email.dispatch.lanes:4}")
+    private int lanes;
+
+    @Value("${email.dispatch.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.dispatch.queue-capacity:500}")
+    private int queueCapacity;
+
+    private final AtomicInteger nextLane = new AtomicInteger();
+
+    private List<BlockingQueue<PendingMessage>> queues;
+
+    private ExecutorService executor;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queues = new ArrayList<>(lanes);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(lanes, runnable -> {
+            Thread thread = new Thread(runnable, "email-lane-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        running = true;
+        for (int i = 0; i < lanes; i++) {
+            BlockingQueue<PendingMessage> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+            executor.execute(() -> runLane(queue));
+        }
+    }
+
+    /**
+     * Отправляет оставшиеся в очередях письма и останавливает потоки. Письма, не отправленные
+     * за время ожидания, завершаются ошибкой.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+
+        List<PendingMessage> unsent = new ArrayList<>();
+        queues.forEach(queue -> queue.drainTo(unsent));
+        unsent.forEach(pending -> pending.result().completeExceptionally(stopped()));
+    }
+
+    /**
+     * Ставит письмо в очередь на отправку. Блокирует, если все очереди заполнены.
+     *
+     * @return результат отправки письма
+     */
+    public CompletableFuture<Void> submit(SimpleMailMessage message) {
+        PendingMessage pending = new PendingMessage(message, new CompletableFuture<>());
+        if (!running) {
+            pending.result().completeExceptionally(stopped());
+            return pending.result();
+        }
+
+        int first = Math.floorMod(nextLane.getAndIncrement(), lanes);
+        for (int i = 0; i < lanes; i++) {
+            if (queues.get((first + i) % lanes).offer(pending)) {
+                return pending.result();
+            }
+        }
+
+        // ожидание места прерывается остановкой: после неё очереди больше не разбираются
+        try {
+            while (!queues.get(first).offer(pending, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                if (!running) {
+                    pending.result().completeExceptionally(stopped());
+                    return pending.result();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result().completeExceptionally(e);
+        }
+        return pending.result();
+    }
+
+    private void runLane(BlockingQueue<PendingMessage> queue) {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // поток полосы не должен завершаться: иначе её очередь больше не разбирается
+                log.error("Ошибка отправки пачки из {} писем", batch.size(), e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<PendingMessage> batch) {
+        SimpleMailMessage[] messages = batch.stream()
+                .map(PendingMessage::message)
+                .toArray(SimpleMailMessage[]::new);
+
+        try {
+            mailSender.send(messages);
+            batch.forEach(pending -> pending.result().complete(null));
+        } catch (MailSendException e) {
+            // JavaMailSenderImpl сообщает, какие именно письма пачки не отправлены
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (PendingMessage pending : batch) {
+                Exception error = failedMessages.isEmpty() ? e : failedMessages.get(pending.message());
+                if (error == null) {
+                    pending.result().complete(null);
+                } else {
+                    pending.result().completeExceptionally(error);
+                }
+            }
+        } catch (MailException e) {
+            log.error("Не удалось отправить пачку из {} писем", batch.size(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        } catch (RuntimeException e) {
+            // ошибка подготовки одного из писем: пачка не отправлена, письма отправляются по одному
+            log.warn("Не удалось подготовить пачку из {} писем, письма отправляются по одному", batch.size(), e);
+            batch.forEach(this::sendOne);
+        }
+    }
+
+    private void sendOne(PendingMessage pending) {
+        try {
+            mailSender.send(pending.message());
+            pending.result().complete(null);
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private static IllegalStateException stopped() {
+        return new IllegalStateException("Отправка писем остановлена");
+    }
+
+    private record PendingMessage(SimpleMailMessage message, CompletableFuture<Void> result) {
+    }
+}
@@ -0,0 +1,189 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.dto.ParticipantDigestDTO;
+import org.nurfet.eventmanagementapplication.dto.ReminderDTO;
+import org.nurfet.eventmanagementapplication.model.EmailOutboxEntry;
+import org.nurfet.eventmanagementapplication.model.EmailOutboxEntry.Status;
+import org.nurfet.eventmanagementapplication.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Очередь исходящих писем в таблице email_outbox. Письма ставятся в очередь в транзакции
+ * вместе с данными, из-за которых они отправляются, и отправляются обработчиком
+ * {@link org.nurfet.eventmanagementapplication.scheduler.EmailOutboxWorker}.
+ * <p>
+ * Обработчик забирает письма пачками с блокировкой FOR UPDATE SKIP LOCKED и сдвигает время
+ * следующей попытки на срок аренды, поэтому несколько узлов могут разбирать очередь
+ * одновременно, не отправляя одно письмо дважды. Если узел упал во время отправки, письма
+ * снова станут доступны по истечении аренды. Неудачные попытки повторяются с экспоненциально
+ * растущей задержкой.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    private static final String REMINDER_TYPE_PREFIX = "EVENT_REMINDER_";
+
+    private static final String DIGEST_TYPE_PREFIX = "EVENT_DIGEST_";
+
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final String ENQUEUE_SQL = "INSERT INTO email_outbox " +
+            "(event_id, participant_id, email_type, recipient, subject, body) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (event_id, participant_id, email_type) DO NOTHING";
+
+    private static final String ENQUEUE_DIGEST_SQL = "INSERT INTO email_outbox " +
+            "(participant_id, email_type, recipient, subject, body) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (participant_id, email_type) WHERE event_id IS NULL DO NOTHING";
+
+    private final EmailOutboxRepository outboxRepository;
+
+    private final EmailService emailService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${email.outbox.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.initial-backoff:PT30S}")
+    private Duration initialBackoff;
+
+    @Value("${email.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    /**
+     * Тип письма-напоминания за {@code offset} до начала мероприятия.
+     */
+    public static String reminderType(Duration offset) {
+        return REMINDER_TYPE_PREFIX + offset;
+    }
+
+    /**
+     * Тип письма-сводки мероприятий на день {@code day}.
+     */
+    public static String digestType(LocalDate day) {
+        return DIGEST_TYPE_PREFIX + day;
+    }
+
+    /**
+     * Ставит в очередь напоминания о мероприятиях. Напоминания того же типа, уже поставленные
+     * ранее (в том числе другим узлом), пропускаются.
+     *
+     * @return число добавленных писем
+     */
+    @Transactional
+    public int enqueueReminders(List<ReminderDTO> reminders, String emailType) {
+        int[][] inserted = jdbcTemplate.batchUpdate(ENQUEUE_SQL, reminders, reminders.size(), (statement, reminder) -> {
+            SimpleMailMessage message = emailService.buildEventReminder(
+                    reminder.getEmail(),
+                    reminder.getEventName(),
+                    reminder.getStartTime().format(formatter)
+            );
+            statement.setLong(1, reminder.getEventId());
+            statement.setLong(2, reminder.getParticipantId());
+            statement.setString(3, emailType);
+            statement.setString(4, reminder.getEmail());
+            statement.setString(5, message.getSubject());
+            statement.setString(6, message.getText());
+        });
+        return countInserted(inserted);
+    }
+
+    /**
+     * Ставит в очередь сводки мероприятий на день {@code day}, по одному письму на участника.
+     * Сводки, уже поставленные на этот день, пропускаются.
+     *
+     * @return число добавленных писем
+     */
+    @Transactional
+    public int enqueueDigests(List<ParticipantDigestDTO> digests, LocalDate day) {
+        String emailType = digestType(day);
+        int[][] inserted = jdbcTemplate.batchUpdate(ENQUEUE_DIGEST_SQL, digests, digests.size(), (statement, digest) -> {
+            SimpleMailMessage message = emailService.buildEventDigest(digest.getEmail(), day, digest.getEvents());
+            statement.setLong(1, digest.getParticipantId());
+            statement.setString(2, emailType);
+            statement.setString(3, digest.getEmail());
+            statement.setString(4, message.getSubject());
+            statement.setString(5, message.getText());
+        });
+        return countInserted(inserted);
+    }
+
+    private static int countInserted(int[][] inserted) {
+        int enqueued = 0;
+        for (int[] batch : inserted) {
+            for (int rows : batch) {
+                if (rows != 0) {
+                    enqueued++;
+                }
+            }
+        }
+        return enqueued;
+    }
+
+    /**
+     * Забирает до {@code batchSize} писем, готовых к отправке, и продлевает их аренду.
+     */
+    @Transactional
+    public List<EmailOutboxEntry> claim(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxEntry> entries = outboxRepository.findReadyForUpdate(
+                Status.PENDING, now, PageRequest.of(0, batchSize));
+
+        for (EmailOutboxEntry entry : entries) {
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setNextAttemptAt(now.plus(lease));
+        }
+        return entries;
+    }
+
+    /**
+     * Записывает результаты отправки забранных писем.
+     *
+     * @param failures письма, которые не удалось отправить, и текст ошибки
+     */
+    @Transactional
+    public void complete(List<Long> sentIds, Map<EmailOutboxEntry, String> failures) {
+        LocalDateTime now = LocalDateTime.now();
+
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSent(sentIds, Status.SENT, now);
+        }
+
+        failures.forEach((entry, error) -> {
+            if (entry.getAttempts() >= maxAttempts) {
+                log.error("Письмо {} для {} не отправлено после {} попыток: {}",
+                        entry.getId(), entry.getRecipient(), entry.getAttempts(), error);
+                outboxRepository.markFailed(entry.getId(), Status.FAILED, error);
+            } else {
+                outboxRepository.scheduleRetry(entry.getId(), now.plus(backoff(entry.getAttempts())), error);
+            }
+        });
+    }
+
+    /**
+     * Задержка перед следующей попыткой: удваивается с каждой неудачной попыткой.
+     */
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
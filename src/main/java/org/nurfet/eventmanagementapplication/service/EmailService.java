@@ -1,13 +1,21 @@
 package org.nurfet.eventmanagementapplication.service;
 
 import lombok.RequiredArgsConstructor;
+import org.nurfet.eventmanagementapplication.dto.ReminderDTO;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class EmailService {
+    private static final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+
     private final JavaMailSender mailSender;
 
     public void sendEmail(String to, String subject, String text) {
@@ -19,6 +27,10 @@ public class EmailService {
     }
 
     public void sendEventReminder(String to, String eventName, String eventDateTime) {
+        mailSender.send(buildEventReminder(to, eventName, eventDateTime));
+    }
+
+    public SimpleMailMessage buildEventReminder(String to, String eventName, String eventDateTime) {
         String subject = "Напоминание: предстоящее событие";
         String text = String.format("""
                         Уважаемый участник,
@@ -29,6 +41,34 @@ public class EmailService {
                         С уважением,
                         Система управления мероприятиями""",
                 eventName, eventDateTime);
-        sendEmail(to, subject, text);
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(text);
+        return message;
+    }
+
+    public SimpleMailMessage buildEventDigest(String to, LocalDate day, List<ReminderDTO> events) {
+        String subject = "Напоминание: ваши мероприятия на " + day;
+        String eventLines = events.stream()
+                .map(event -> String.format("%s  %s", event.getStartTime().format(timeFormatter), event.getEventName()))
+                .collect(Collectors.joining("\n"));
+        String text = String.format("""
+                        Уважаемый участник,
+
+                        Напоминаем, что на %s у вас запланированы мероприятия:
+
+                        %s
+
+                        С уважением,
+                        Система управления мероприятиями""",
+                day, eventLines);
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(text);
+        return message;
     }
 }
@@ -1,10 +1,19 @@
 package org.nurfet.eventmanagementapplication.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.config.CacheConfig;
+import org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO;
+import org.nurfet.eventmanagementapplication.dto.EventBatchResultDTO;
 import org.nurfet.eventmanagementapplication.dto.EventDTO;
+import org.nurfet.eventmanagementapplication.dto.EventPageDTO;
 import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
 import org.nurfet.eventmanagementapplication.dto.ParticipantDTO;
+import org.nurfet.eventmanagementapplication.dto.RegistrationResultDTO;
 import org.nurfet.eventmanagementapplication.exception.ResourceNotFoundException;
 import org.nurfet.eventmanagementapplication.model.Event;
 import org.nurfet.eventmanagementapplication.model.Participant;
@@ -12,25 +21,72 @@ import org.nurfet.eventmanagementapplication.model.Room;
 import org.nurfet.eventmanagementapplication.repository.EventRepository;
 import org.nurfet.eventmanagementapplication.repository.ParticipantRepository;
 import org.nurfet.eventmanagementapplication.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.nurfet.eventmanagementapplication.service.ParticipantService.getParticipantDTO;
 
+@Slf4j
 @Service
+@Timed("app.service")
 @RequiredArgsConstructor
 public class EventService {
+    private static final String ROOM_OCCUPIED_MESSAGE = "Помещение уже забронировано на это время";
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int INSERT_BATCH_SIZE = 50;
+    private static final String ALLOCATE_EVENT_IDS_SQL = "SELECT nextval('events_id_seq') FROM generate_series(1, ?)";
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO events (id, name, start_time, end_time, room_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_PARTICIPANT_SQL =
+            "INSERT INTO participants (first_name, last_name, email, email_normalized, phone) VALUES (?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (email_normalized) WHERE deleted = false DO NOTHING RETURNING id";
+    private static final String ADD_PARTICIPANT_SQL =
+            "INSERT INTO event_participants (event_id, participant_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
     private final EventRepository eventRepository;
     private final RoomRepository roomRepository;
     private final ParticipantRepository participantRepository;
+    private final RoomBookingIndex roomBookingIndex;
+    private final WaitlistService waitlistService;
+    private final ReminderService reminderService;
+    private final CacheInvalidator cacheInvalidator;
+    private final ParticipantEmailFilter emailFilter;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${event.batch.max-size:1000}")
+    private int maxBatchSize;
 
     public List<EventDTO> getAllEvents() {
-        return eventRepository.findAllByDeletedFalse().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return eventRepository.findAllDTOs();
     }
 
     @Transactional
@@ -41,10 +97,80 @@ public class EventService {
 
         Event event = new Event();
         updateEventFields(event, dto, room);
-        event = eventRepository.save(event);
+        event = saveBooking(event);
+        roomBookingIndex.onEventSaved(event);
+        reminderService.onEventSaved(event);
         return convertToDTO(event);
     }
 
+    /**
+     * Создаёт пачку мероприятий одной транзакцией (например, импорт расписания). Мероприятия
+     * проверяются по отдельности: ошибка в одном из них не прерывает обработку пачки. Пересечения
+     * проверяются с бронированиями помещения и с уже принятыми мероприятиями той же пачки
+     * (из пересекающихся принимается указанное раньше).
+     * <p>
+     * Идентификаторы выделяются из последовательности events_id_seq одним запросом, а строки
+     * добавляются пакетами JDBC по {@value #INSERT_BATCH_SIZE}: при сохранении через Hibernate
+     * генерация IDENTITY отключает пакетную вставку.
+     *
+     * @return результат для каждого мероприятия в порядке запроса
+     */
+    @Transactional
+    public List<EventBatchResultDTO> createEventsBatch(List<EventDTO> dtos) {
+        if (dtos.isEmpty() || dtos.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    String.format("Пачка должна содержать от 1 до %d мероприятий", maxBatchSize));
+        }
+
+        long started = System.nanoTime();
+        Map<Long, Room> rooms = findRoomsById(dtos);
+        Map<Long, TreeMap<LocalDateTime, LocalDateTime>> bookingsByRoom = loadBookings(dtos, rooms);
+
+        List<EventBatchResultDTO> results = new ArrayList<>(dtos.size());
+        List<Event> accepted = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            EventDTO dto = dtos.get(i);
+            try {
+                validateBatchItem(dto);
+                Room room = rooms.get(dto.getRoomId());
+                if (room == null) {
+                    throw new ResourceNotFoundException("Помещение не найдено");
+                }
+                TreeMap<LocalDateTime, LocalDateTime> bookings = bookingsByRoom.get(room.getId());
+                if (overlaps(bookings, dto.getStartTime(), dto.getEndTime())) {
+                    throw new IllegalStateException(ROOM_OCCUPIED_MESSAGE);
+                }
+                bookings.put(dto.getStartTime(), dto.getEndTime());
+
+                Event event = new Event();
+                updateEventFields(event, dto, room);
+                accepted.add(event);
+                results.add(new EventBatchResultDTO(i, "CREATED", null, null));
+            } catch (IllegalArgumentException | IllegalStateException | ResourceNotFoundException e) {
+                results.add(new EventBatchResultDTO(i, "REJECTED", null, e.getMessage()));
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            insertBookings(accepted);
+        }
+
+        int next = 0;
+        for (EventBatchResultDTO result : results) {
+            if ("CREATED".equals(result.getStatus())) {
+                Event event = accepted.get(next++);
+                roomBookingIndex.onEventSaved(event);
+                reminderService.onEventSaved(event);
+                result.setEvent(convertToDTO(event));
+            }
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Создано мероприятий пачкой: {} из {} за {} мс ({} строк/с)",
+                accepted.size(), dtos.size(), elapsedMillis, accepted.size() * 1000L / elapsedMillis);
+        return results;
+    }
+
     @Transactional
     public EventDTO updateEvent(Long id, EventDTO dto) {
         Event event = getEventEntityById(id);
@@ -53,8 +179,21 @@ public class EventService {
         validateEventTimes(dto);
         validateRoomAvailability(id, room.getId(), dto.getStartTime(), dto.getEndTime());
 
+        if (room.getCapacity() < event.getRegisteredCount()) {
+            throw new IllegalStateException("Вместимость помещения меньше числа зарегистрированных участников");
+        }
+
+        boolean capacityIncreased = room.getCapacity() > event.getRoom().getCapacity();
+
         updateEventFields(event, dto, room);
-        event = eventRepository.save(event);
+        event = saveBooking(event);
+        roomBookingIndex.onEventSaved(event);
+        reminderService.onEventSaved(event);
+        cacheInvalidator.evictEvent(id);
+
+        if (capacityIncreased) {
+            waitlistService.promote(id);
+        }
         return convertToDTO(event);
     }
 
@@ -63,37 +202,145 @@ public class EventService {
         Event event = getEventEntityById(id);
         event.setDeleted(true);
         eventRepository.save(event);
+        roomBookingIndex.onEventDeleted(event);
+        reminderService.onEventDeleted(event);
+        cacheInvalidator.evictEvent(id);
+        eventPublisher.publishEvent(new SeatsReleasedEvent(id));
     }
 
+    @Cacheable(cacheNames = CacheConfig.EVENTS, key = "#id", sync = true)
     public EventDTO getEvent(Long id) {
-        return convertToDTO(getEventEntityById(id));
+        return eventRepository.findDTOByIdAndDeletedFalse(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Событие не найдено"));
     }
 
     public List<ParticipantDTO> getEventParticipants(Long eventId) {
-        Event event = getEventEntityById(eventId);
-        return event.getParticipants().stream()
-                .filter(participant -> !participant.isDeleted())
-                .map(this::convertToParticipantDTO)
-                .collect(Collectors.toList());
+        List<ParticipantDTO> participants = participantRepository.findDTOsByEventId(eventId);
+
+        if (participants.isEmpty() && !eventRepository.existsByIdAndDeletedFalse(eventId)) {
+            throw new ResourceNotFoundException("Событие не найдено");
+        }
+
+        return participants;
     }
 
+    /**
+     * Регистрирует участника на мероприятие. Если свободных мест нет, участник ставится
+     * в лист ожидания.
+     */
     @Transactional
-    public ParticipantDTO registerParticipant(Long eventId, EventRegistrationDTO registrationDTO) {
+    public RegistrationResultDTO registerParticipant(Long eventId, EventRegistrationDTO registrationDTO) {
         Event event = getEventEntityById(eventId);
 
         if (event.getEndTime().isBefore(LocalDateTime.now())) {
             throw new IllegalStateException("Невозможно зарегистрироваться на прошедшее мероприятие");
         }
 
+        if (event.isFlashSale()) {
+            throw new IllegalStateException("Регистрация на мероприятие проводится через бронирование мест");
+        }
+
         Participant participant = getOrCreateParticipant(registrationDTO);
 
-        if (event.getParticipants().contains(participant)) {
+        if (eventRepository.addParticipant(event.getId(), participant.getId()) == 0) {
             throw new IllegalStateException("Участник уже зарегистрирован на это мероприятие");
         }
+        cacheInvalidator.evictEvent(event.getId());
+
+        if (eventRepository.incrementRegisteredCount(event.getId(), 1) == 0) {
+            eventRepository.removeParticipant(event.getId(), participant.getId());
+            long position = waitlistService.enqueue(event.getId(), participant.getId());
+            if (position == 0) {
+                // место освободилось, пока участник вставал в очередь
+                return new RegistrationResultDTO(convertToParticipantDTO(participant), "REGISTERED", null);
+            }
+            return new RegistrationResultDTO(convertToParticipantDTO(participant), "WAITLISTED", position);
+        }
 
-        event.getParticipants().add(participant);
-        eventRepository.save(event);
-        return convertToParticipantDTO(participant);
+        return new RegistrationResultDTO(convertToParticipantDTO(participant), "REGISTERED", null);
+    }
+
+    /**
+     * Отменяет регистрацию участника или убирает его из листа ожидания. Освободившееся место
+     * в той же транзакции занимает первый участник из листа ожидания.
+     */
+    @Transactional
+    public void unregisterParticipant(Long eventId, Long participantId) {
+        Event event = getEventEntityById(eventId);
+
+        if (eventRepository.removeParticipant(event.getId(), participantId) > 0) {
+            eventRepository.decrementRegisteredCount(event.getId());
+            cacheInvalidator.evictEvent(event.getId());
+            waitlistService.promote(event.getId());
+            eventPublisher.publishEvent(new SeatsReleasedEvent(event.getId()));
+            return;
+        }
+
+        if (!waitlistService.remove(event.getId(), participantId)) {
+            throw new ResourceNotFoundException("Участник не зарегистрирован на мероприятие");
+        }
+    }
+
+    /**
+     * Регистрирует пачку участников на мероприятие одной транзакцией (подтверждения бронирований).
+     * Каждый участник регистрируется после своей точки сохранения: при ошибке, например нарушении
+     * ограничения из-за параллельной вставки, откатывается только его регистрация. Вставки участника
+     * выполняются через JDBC, так как ошибка запроса Hibernate помечает для отката всю транзакцию.
+     *
+     * @return для каждой регистрации {@code null} при успехе или текст ошибки
+     */
+    @Transactional
+    public List<String> registerParticipantsBatch(Long eventId, List<EventRegistrationDTO> registrations) {
+        List<String> results = new ArrayList<>(registrations.size());
+        int registered = 0;
+
+        for (EventRegistrationDTO registration : registrations) {
+            String error = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    String rowError = registerBatchParticipant(eventId, registration);
+                    connection.releaseSavepoint(savepoint);
+                    return rowError;
+                } catch (IllegalStateException e) {
+                    connection.rollback(savepoint);
+                    return e.getMessage();
+                } catch (RuntimeException e) {
+                    connection.rollback(savepoint);
+                    log.warn("Не удалось зарегистрировать участника {} на мероприятие {}",
+                            registration.getEmail(), eventId, e);
+                    return "Не удалось зарегистрировать участника, повторите запрос";
+                }
+            });
+
+            results.add(error);
+            if (error == null) {
+                registered++;
+            }
+        }
+
+        if (registered > 0 && eventRepository.incrementRegisteredCount(eventId, registered) == 0) {
+            throw new IllegalStateException("На мероприятии не осталось свободных мест");
+        }
+        cacheInvalidator.evictEvent(eventId);
+
+        return results;
+    }
+
+    /**
+     * @return {@code null} при успехе или текст ошибки
+     */
+    private String registerBatchParticipant(Long eventId, EventRegistrationDTO registration) {
+        Participant participant = getOrCreateParticipant(registration, this::insertParticipantIfAbsent);
+
+        if (jdbcTemplate.update(ADD_PARTICIPANT_SQL, eventId, participant.getId()) == 0) {
+            return "Участник уже зарегистрирован на это мероприятие";
+        }
+        return null;
+    }
+
+    private Optional<Long> insertParticipantIfAbsent(EventRegistrationDTO dto, String emailNormalized) {
+        return jdbcTemplate.queryForList(INSERT_PARTICIPANT_SQL, Long.class, dto.getFirstName(), dto.getLastName(),
+                dto.getEmail(), emailNormalized, dto.getPhone()).stream().findFirst();
     }
 
     private void validateEventTimes(EventDTO dto) {
@@ -107,20 +354,112 @@ public class EventService {
     }
 
     private void validateRoomAvailability(Long eventId, Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
-        List<Event> eventsInRoom = eventRepository.findByRoomIdAndDeletedFalse(roomId);
+        if (roomBookingIndex.isOccupied(roomId, eventId, startTime, endTime)) {
+            throw new IllegalStateException(ROOM_OCCUPIED_MESSAGE);
+        }
+    }
+
+    /**
+     * Сохраняет мероприятие с немедленной отправкой в БД, чтобы нарушение ограничения
+     * events_room_booking_excl (параллельное бронирование того же времени) было
+     * получено здесь и преобразовано в ответ 409.
+     */
+    private Event saveBooking(Event event) {
+        try {
+            return eventRepository.saveAndFlush(event);
+        } catch (DataIntegrityViolationException e) {
+            if (isBookingConflict(e)) {
+                roomBookingIndex.invalidateRoom(event.getRoom().getId());
+                throw new IllegalStateException(ROOM_OCCUPIED_MESSAGE);
+            }
+            throw e;
+        }
+    }
+
+    private void validateBatchItem(EventDTO dto) {
+        Set<ConstraintViolation<EventDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+        validateEventTimes(dto);
+    }
+
+    private Map<Long, Room> findRoomsById(List<EventDTO> dtos) {
+        Set<Long> roomIds = dtos.stream()
+                .map(EventDTO::getRoomId)
+                .filter(roomId -> roomId != null)
+                .collect(Collectors.toSet());
+        return roomRepository.findAllById(roomIds).stream()
+                .filter(room -> !room.isDeleted())
+                .collect(Collectors.toMap(Room::getId, room -> room));
+    }
+
+    /**
+     * Загружает бронирования каждого помещения пачки за промежуток, покрывающий все её
+     * мероприятия в этом помещении. Бронирования не пересекаются, поэтому хранятся как
+     * упорядоченное отображение начала на окончание.
+     */
+    private Map<Long, TreeMap<LocalDateTime, LocalDateTime>> loadBookings(List<EventDTO> dtos, Map<Long, Room> rooms) {
+        Map<Long, LocalDateTime[]> ranges = new HashMap<>();
+        for (EventDTO dto : dtos) {
+            if (dto.getStartTime() == null || dto.getEndTime() == null || !rooms.containsKey(dto.getRoomId())) {
+                continue;
+            }
+            ranges.merge(dto.getRoomId(), new LocalDateTime[]{dto.getStartTime(), dto.getEndTime()},
+                    (range, other) -> new LocalDateTime[]{
+                            range[0].isBefore(other[0]) ? range[0] : other[0],
+                            range[1].isAfter(other[1]) ? range[1] : other[1]});
+        }
+
+        Map<Long, TreeMap<LocalDateTime, LocalDateTime>> bookingsByRoom = new HashMap<>();
+        ranges.forEach((roomId, range) -> {
+            TreeMap<LocalDateTime, LocalDateTime> bookings = new TreeMap<>();
+            for (BookingIntervalDTO booking : roomBookingIndex.getBookings(roomId, range[0], range[1])) {
+                bookings.put(booking.getStartTime(), booking.getEndTime());
+            }
+            bookingsByRoom.put(roomId, bookings);
+        });
+        return bookingsByRoom;
+    }
+
+    /**
+     * Среди непересекающихся бронирований с промежутком может пересекаться только последнее,
+     * начинающееся не позже его окончания. Касание границами считается пересечением.
+     */
+    private static boolean overlaps(TreeMap<LocalDateTime, LocalDateTime> bookings,
+                                    LocalDateTime startTime, LocalDateTime endTime) {
+        Map.Entry<LocalDateTime, LocalDateTime> candidate = bookings.floorEntry(endTime);
+        return candidate != null && !candidate.getValue().isBefore(startTime);
+    }
 
-        boolean isOccupied = eventsInRoom.stream()
-                .filter(event -> eventId == null || !event.getId().equals(eventId)) // Изменили условие
-                .anyMatch(event ->
-                        (startTime.isBefore(event.getEndTime()) || startTime.equals(event.getEndTime())) &&
-                                (endTime.isAfter(event.getStartTime()) || endTime.equals(event.getStartTime()))
-                );
+    private void insertBookings(List<Event> events) {
+        List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_EVENT_IDS_SQL, Long.class, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            events.get(i).setId(ids.get(i));
+        }
 
-        if (isOccupied) {
-            throw new IllegalStateException("Помещение уже забронировано на это время");
+        try {
+            jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events, INSERT_BATCH_SIZE, (statement, event) -> {
+                statement.setLong(1, event.getId());
+                statement.setString(2, event.getName());
+                statement.setTimestamp(3, Timestamp.valueOf(event.getStartTime()));
+                statement.setTimestamp(4, Timestamp.valueOf(event.getEndTime()));
+                statement.setLong(5, event.getRoom().getId());
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (isBookingConflict(e)) {
+                events.forEach(event -> roomBookingIndex.invalidateRoom(event.getRoom().getId()));
+                throw new IllegalStateException(ROOM_OCCUPIED_MESSAGE);
+            }
+            throw e;
         }
     }
 
+    private boolean isBookingConflict(DataIntegrityViolationException e) {
+        return NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException
+                && EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState());
+    }
+
     private void updateEventFields(Event event, EventDTO dto, Room room) {
         event.setName(dto.getName());
         event.setStartTime(dto.getStartTime());
@@ -138,31 +477,55 @@ public class EventService {
                 .orElseThrow(() -> new ResourceNotFoundException("Событие не найдено"));
     }
 
+    /**
+     * Находит участника по email или добавляет нового. Поиск выполняется, только если фильтр
+     * email допускает, что участник уже есть; иначе участник сразу добавляется, а если email
+     * успел занять другой запрос или узел, вставка ничего не делает и участник ищется в БД.
+     */
     private Participant getOrCreateParticipant(EventRegistrationDTO dto) {
-        return participantRepository.findByEmail(dto.getEmail())
-                .map(participant -> validateExistingParticipant(participant, dto))
-                .orElseGet(() -> createNewParticipant(dto));
+        return getOrCreateParticipant(dto, (registration, emailNormalized) -> participantRepository.insertIfAbsent(
+                registration.getFirstName(), registration.getLastName(), registration.getEmail(), emailNormalized,
+                registration.getPhone()));
     }
 
-    private Participant validateExistingParticipant(Participant participant, EventRegistrationDTO dto) {
-        if (!participant.getFirstName().equals(dto.getFirstName()) ||
-                !participant.getLastName().equals(dto.getLastName()) ||
-                !participant.getPhone().equals(dto.getPhone())) {
-            throw new IllegalStateException("Участник с таким email уже существует. Указанные данные не совпадают с существующими");
+    private Participant getOrCreateParticipant(EventRegistrationDTO dto,
+                                               BiFunction<EventRegistrationDTO, String, Optional<Long>> insertIfAbsent) {
+        String emailNormalized = Participant.normalizeEmail(dto.getEmail());
+        if (emailFilter.mightExist(emailNormalized)) {
+            Optional<Participant> existing = participantRepository.findByEmailNormalized(emailNormalized);
+            if (existing.isPresent()) {
+                return validateExistingParticipant(existing.get(), dto);
+            }
         }
-        return participant;
-    }
 
-    private Participant createNewParticipant(EventRegistrationDTO dto) {
+        Optional<Long> insertedId = insertIfAbsent.apply(dto, emailNormalized);
+        if (insertedId.isEmpty()) {
+            return participantRepository.findByEmailNormalized(emailNormalized)
+                    .map(participant -> validateExistingParticipant(participant, dto))
+                    .orElseThrow(() -> new IllegalStateException("Участник с таким email изменяется параллельно, повторите запрос"));
+        }
+
+        emailFilter.add(emailNormalized);
         Participant participant = new Participant();
+        participant.setId(insertedId.get());
         participant.setFirstName(dto.getFirstName());
         participant.setLastName(dto.getLastName());
         participant.setEmail(dto.getEmail());
+        participant.setEmailNormalized(emailNormalized);
         participant.setPhone(dto.getPhone());
-        return participantRepository.save(participant);
+        return participant;
+    }
+
+    private Participant validateExistingParticipant(Participant participant, EventRegistrationDTO dto) {
+        if (!participant.getFirstName().equals(dto.getFirstName()) ||
+                !participant.getLastName().equals(dto.getLastName()) ||
+                !participant.getPhone().equals(dto.getPhone())) {
+            throw new IllegalStateException("Участник с таким email уже существует. Указанные данные не совпадают с существующими");
+        }
+        return participant;
     }
 
-    private EventDTO convertToDTO(Event event) {
+    static EventDTO convertToDTO(Event event) {
         EventDTO dto = new EventDTO();
         dto.setId(event.getId());
         dto.setName(event.getName());
@@ -170,6 +533,8 @@ public class EventService {
         dto.setEndTime(event.getEndTime());
         dto.setRoomId(event.getRoom().getId());
         dto.setRoomName(event.getRoom().getName());
+        dto.setRegisteredCount(event.getRegisteredCount());
+        dto.setFlashSale(event.isFlashSale());
         return dto;
     }
 
@@ -178,21 +543,93 @@ public class EventService {
     }
 
     public List<EventDTO> getEventsBetweenDates(LocalDateTime start, LocalDateTime end) {
-        if (start.isAfter(end)) {
-            throw new IllegalArgumentException("Дата начала не может быть позже даты окончания");
+        checkDateRange(start, end);
+
+        return eventRepository.findDTOsBetweenDates(start, end);
+    }
+
+    /**
+     * Возвращает страницу мероприятий, упорядоченных по (startTime, id). Если заданы границы
+     * периода, выбираются только мероприятия, пересекающиеся с ним.
+     *
+     * @param cursor курсор из {@link EventPageDTO#getNextCursor()} предыдущей страницы или {@code null} для первой
+     */
+    public EventPageDTO getEventsPage(LocalDateTime start, LocalDateTime end, String cursor, int size) {
+        checkDateRange(start, end);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("Размер страницы должен быть от 1 до %d", MAX_PAGE_SIZE));
+        }
+
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<EventDTO> events;
+        if (cursor == null) {
+            // первая страница без условия по курсору: любое граничное значение отсекло бы более ранние мероприятия
+            events = start == null
+                    ? eventRepository.findFirstPage(limit)
+                    : eventRepository.findFirstPageBetweenDates(start, end, limit);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            events = start == null
+                    ? eventRepository.findPageAfter(after.startTime(), after.id(), limit)
+                    : eventRepository.findPageBetweenDatesAfter(start, end, after.startTime(), after.id(), limit);
         }
 
-        return eventRepository.findEventsBetweenDates(start, end).stream()
-                .filter(event -> !event.isDeleted())
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (events.size() > size) {
+            events = events.subList(0, size);
+            EventDTO last = events.get(size - 1);
+            nextCursor = new PageCursor(last.getStartTime(), last.getId()).encode();
+        }
+
+        return new EventPageDTO(events, nextCursor);
     }
 
-    public List<Event> getUpcomingEvents() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime todayStart = now.toLocalDate().atStartOfDay();
-        LocalDateTime tomorrowEnd = todayStart.plusDays(2);
+    /**
+     * Передаёт мероприятия потребителю по одному, не накапливая их в памяти: строки читаются
+     * курсором JDBC сразу в DTO, минуя контекст персистентности.
+     */
+    @Transactional
+    public void streamEvents(LocalDateTime start, LocalDateTime end, Consumer<EventDTO> consumer) {
+        checkDateRange(start, end);
 
-        return eventRepository.findUpcomingEvents(todayStart, tomorrowEnd);
+        try (Stream<EventDTO> events = start == null
+                ? eventRepository.streamAllDTOs()
+                : eventRepository.streamDTOsBetweenDates(start, end)) {
+            events.forEach(consumer);
+        }
+    }
+
+    /**
+     * Проверяет период выборки. Границы должны быть указаны обе либо ни одной.
+     */
+    public void checkDateRange(LocalDateTime start, LocalDateTime end) {
+        if ((start == null) != (end == null)) {
+            throw new IllegalArgumentException("Необходимо указать обе границы периода");
+        }
+
+        if (start != null && start.isAfter(end)) {
+            throw new IllegalArgumentException("Дата начала не может быть позже даты окончания");
+        }
+    }
+
+    private record PageCursor(LocalDateTime startTime, Long id) {
+
+        String encode() {
+            String value = startTime + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PageCursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.lastIndexOf('|');
+                return new PageCursor(
+                        LocalDateTime.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Некорректный курсор страницы");
+            }
+        }
     }
 }
@@ -0,0 +1,361 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
+import org.nurfet.eventmanagementapplication.dto.ReservationDTO;
+import org.nurfet.eventmanagementapplication.exception.ResourceNotFoundException;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Регистрация на мероприятия в режиме высокой нагрузки. Места выдаются из счётчика в памяти
+ * без обращения к строке мероприятия в БД: клиент получает токен бронирования, подтверждает его
+ * данными участника, а подтверждения записываются в БД пачками. Неподтверждённые бронирования
+ * по истечении срока возвращаются в пул.
+ * <p>
+ * Места, освобождённые отменой регистрации, возвращаются в пул сверкой с БД после фиксации
+ * отмены ({@link SeatsReleasedEvent}). Кроме того, раз в минуту пулы сверяются с БД, а пулы
+ * прошедших, удалённых и переведённых в обычный режим мероприятий удаляются.
+ * <p>
+ * Пул мест хранится на узле, поэтому режим рассчитан на обработку мероприятия одним узлом.
+ * Превышение вместимости исключено и при нескольких узлах: запись пачки выполняется условным
+ * UPDATE счётчика участников.
+ */
+@Slf4j
+@Service
+@Timed("app.service")
+@RequiredArgsConstructor
+public class FlashSaleService {
+
+    private static final Duration COMPLETED_RETENTION = Duration.ofMinutes(10);
+
+    private static final Duration RECONCILE_INTERVAL = Duration.ofMinutes(1);
+
+    private final EventRepository eventRepository;
+
+    private final EventService eventService;
+
+    private final CacheInvalidator cacheInvalidator;
+
+    @Value("${flash-sale.reservation-ttl:PT5M}")
+    private Duration reservationTtl;
+
+    @Value("${flash-sale.batch-size:200}")
+    private int batchSize;
+
+    @Value("${flash-sale.flush-interval:PT0.2S}")
+    private Duration flushInterval;
+
+    private final ConcurrentMap<Long, SeatPool> pools = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<Reservation> confirmations = new LinkedBlockingQueue<>();
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flash-sale-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushSafely,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::expireReservations, 1, 1, TimeUnit.SECONDS);
+        executor.scheduleWithFixedDelay(this::reconcilePoolsSafely,
+                RECONCILE_INTERVAL.toMillis(), RECONCILE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        flushSafely();
+    }
+
+    @Transactional
+    public void enable(Long eventId) {
+        if (eventRepository.updateFlashSale(eventId, true) == 0) {
+            throw new ResourceNotFoundException("Событие не найдено");
+        }
+        cacheInvalidator.evictEvent(eventId);
+    }
+
+    @Transactional
+    public void disable(Long eventId) {
+        if (eventRepository.updateFlashSale(eventId, false) == 0) {
+            throw new ResourceNotFoundException("Событие не найдено");
+        }
+        cacheInvalidator.evictEvent(eventId);
+        pools.remove(eventId);
+    }
+
+    /**
+     * Бронирует место на мероприятии. Не обращается к БД, кроме первой загрузки пула мест.
+     */
+    public ReservationDTO reserve(Long eventId) {
+        SeatPool pool = pools.computeIfAbsent(eventId, this::loadPool);
+
+        if (!pool.tryAcquire()) {
+            throw new IllegalStateException("На мероприятии не осталось свободных мест");
+        }
+
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), eventId, pool,
+                Instant.now().plus(reservationTtl));
+        reservations.put(reservation.token, reservation);
+        return reservation.toDTO();
+    }
+
+    /**
+     * Подтверждает бронирование. Участник будет зарегистрирован при записи ближайшей пачки,
+     * результат можно получить через {@link #getReservation(Long, String)}.
+     */
+    public ReservationDTO confirm(Long eventId, String token, EventRegistrationDTO registration) {
+        Reservation reservation = findReservation(eventId, token);
+
+        if (reservation.isExpired(Instant.now())
+                || !reservation.status.compareAndSet(ReservationStatus.RESERVED, ReservationStatus.CONFIRMING)) {
+            throw new IllegalStateException("Бронирование уже подтверждено или истекло");
+        }
+
+        reservation.registration = registration;
+        confirmations.add(reservation);
+        return reservation.toDTO();
+    }
+
+    public ReservationDTO getReservation(Long eventId, String token) {
+        return findReservation(eventId, token).toDTO();
+    }
+
+    private Reservation findReservation(Long eventId, String token) {
+        Reservation reservation = reservations.get(token);
+        if (reservation == null || !reservation.eventId.equals(eventId)) {
+            throw new ResourceNotFoundException("Бронирование не найдено");
+        }
+        return reservation;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsReleased(SeatsReleasedEvent event) {
+        SeatPool pool = pools.get(event.eventId());
+        if (pool != null) {
+            reconcile(event.eventId(), pool);
+        }
+    }
+
+    private void reconcilePoolsSafely() {
+        try {
+            reconcilePools();
+        } catch (RuntimeException e) {
+            log.error("Ошибка сверки пулов мест с БД", e);
+        }
+    }
+
+    void reconcilePools() {
+        pools.forEach(this::reconcile);
+    }
+
+    /**
+     * Устанавливает число мест пула по БД за вычетом действующих бронирований, ещё не записанных
+     * в БД. Пул мероприятия, которое прошло, удалено или переведено в обычный режим, удаляется.
+     * Бронирование, выданное во время сверки, может быть учтено неточно; превышение вместимости
+     * всё равно исключено условным UPDATE при записи пачки.
+     */
+    private void reconcile(Long eventId, SeatPool pool) {
+        Optional<Integer> freeSeats = eventRepository.findFlashSaleFreeSeats(eventId);
+        if (freeSeats.isEmpty()) {
+            pools.remove(eventId, pool);
+            return;
+        }
+
+        long held = reservations.values().stream()
+                .filter(reservation -> reservation.pool == pool && reservation.holdsSeat())
+                .count();
+        pool.reset(freeSeats.get() - (int) held);
+    }
+
+    private SeatPool loadPool(Long eventId) {
+        return eventRepository.findFlashSaleFreeSeats(eventId)
+                .map(SeatPool::new)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Мероприятие с регистрацией через бронирование мест не найдено"));
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Ошибка записи подтверждённых бронирований", e);
+        }
+    }
+
+    /**
+     * Записывает накопленные подтверждения пачками не более {@code batchSize} на мероприятие.
+     */
+    void flush() {
+        List<Reservation> batch = new ArrayList<>(batchSize);
+        while (confirmations.drainTo(batch, batchSize) > 0) {
+            Map<Long, List<Reservation>> byEvent = batch.stream()
+                    .collect(Collectors.groupingBy(reservation -> reservation.eventId));
+            byEvent.forEach(this::writeBatch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(Long eventId, List<Reservation> batch) {
+        List<EventRegistrationDTO> registrations = batch.stream()
+                .map(reservation -> reservation.registration)
+                .toList();
+
+        List<String> results;
+        try {
+            results = eventService.registerParticipantsBatch(eventId, registrations);
+        } catch (RuntimeException e) {
+            log.error("Не удалось записать {} подтверждений для мероприятия {}", batch.size(), eventId, e);
+            batch.forEach(reservation -> reservation.fail(e.getMessage()));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Reservation reservation = batch.get(i);
+            String error = results.get(i);
+            if (error == null) {
+                reservation.complete(ReservationStatus.CONFIRMED);
+            } else {
+                reservation.fail(error);
+            }
+        }
+    }
+
+    void expireReservations() {
+        Instant now = Instant.now();
+        Instant retentionLimit = now.minus(COMPLETED_RETENTION);
+
+        reservations.values().removeIf(reservation -> {
+            if (reservation.isExpired(now)
+                    && reservation.status.compareAndSet(ReservationStatus.RESERVED, ReservationStatus.EXPIRED)) {
+                reservation.pool.release();
+                reservation.completedAt = now;
+            }
+            return reservation.completedAt != null && reservation.completedAt.isBefore(retentionLimit);
+        });
+    }
+
+    private enum ReservationStatus {
+        RESERVED, CONFIRMING, CONFIRMED, FAILED, EXPIRED
+    }
+
+    /**
+     * Свободные места мероприятия. Выдача места - неблокирующий CAS по счётчику.
+     */
+    private static final class SeatPool {
+
+        private final AtomicInteger available;
+
+        SeatPool(int available) {
+            this.available = new AtomicInteger(Math.max(available, 0));
+        }
+
+        boolean tryAcquire() {
+            int current;
+            do {
+                current = available.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        void release() {
+            available.incrementAndGet();
+        }
+
+        void reset(int available) {
+            this.available.set(Math.max(available, 0));
+        }
+    }
+
+    private static final class Reservation {
+
+        private final String token;
+
+        private final Long eventId;
+
+        private final SeatPool pool;
+
+        private final Instant expiresAt;
+
+        private final AtomicReference<ReservationStatus> status = new AtomicReference<>(ReservationStatus.RESERVED);
+
+        private volatile EventRegistrationDTO registration;
+
+        private volatile String error;
+
+        private volatile Instant completedAt;
+
+        Reservation(String token, Long eventId, SeatPool pool, Instant expiresAt) {
+            this.token = token;
+            this.eventId = eventId;
+            this.pool = pool;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Место занято бронированием, но ещё не записано в БД.
+         */
+        boolean holdsSeat() {
+            ReservationStatus current = status.get();
+            return current == ReservationStatus.RESERVED || current == ReservationStatus.CONFIRMING;
+        }
+
+        boolean isExpired(Instant now) {
+            return now.isAfter(expiresAt);
+        }
+
+        void complete(ReservationStatus result) {
+            status.set(result);
+            completedAt = Instant.now();
+        }
+
+        void fail(String message) {
+            error = message;
+            pool.release();
+            complete(ReservationStatus.FAILED);
+        }
+
+        ReservationDTO toDTO() {
+            return new ReservationDTO(token, eventId, status.get().name(),
+                    LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()), error);
+        }
+    }
+}
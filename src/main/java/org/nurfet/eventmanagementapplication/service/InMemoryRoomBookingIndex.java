@@ -0,0 +1,206 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO;
+import org.nurfet.eventmanagementapplication.model.Event;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.nurfet.eventmanagementapplication.service.TransactionCallbacks.afterCommit;
+
+/**
+ * Индекс бронирований в памяти: для каждого помещения хранится упорядоченный по времени
+ * начала список бронирований (skip list). Проверка пересечения просматривает только
+ * бронирования, начинающиеся в окне {@code [start - maxDuration, end]}, поэтому выполняется
+ * за O(log n) и не обращается к базе данных.
+ * <p>
+ * Индекс заполняется при старте приложения; помещения, не попавшие в начальную загрузку,
+ * загружаются из базы при первом обращении. Загрузка выполняется без блокировки карты помещений;
+ * если во время неё индекс изменился, загруженное расписание отбрасывается и читается заново.
+ * Изменения применяются после фиксации транзакции.
+ * Прошедшие мероприятия не загружаются: новое мероприятие не может начинаться в прошлом,
+ * поэтому пересечься с ними оно не может.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.index", havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InMemoryRoomBookingIndex implements RoomBookingIndex, SmartInitializingSingleton {
+
+    private final EventRepository eventRepository;
+
+    private final ConcurrentMap<Long, RoomTimeline> timelines = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, BookingIntervalDTO> bookingsByEvent = new ConcurrentHashMap<>();
+
+    /**
+     * Число изменений индекса: по нему загрузка помещения узнаёт, что прочитанные данные могли устареть.
+     */
+    private final AtomicLong modifications = new AtomicLong();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<Long, List<BookingIntervalDTO>> bookingsByRoom = eventRepository.findBookingIntervalsEndingAfter(horizon())
+                .stream()
+                .collect(Collectors.groupingBy(BookingIntervalDTO::getRoomId));
+
+        bookingsByRoom.forEach((roomId, bookings) -> {
+            RoomTimeline timeline = buildTimeline(bookings);
+            if (timelines.putIfAbsent(roomId, timeline) == null) {
+                bookings.forEach(booking -> bookingsByEvent.putIfAbsent(booking.getEventId(), booking));
+            }
+        });
+        log.info("Индекс бронирований загружен: {} помещений", bookingsByRoom.size());
+    }
+
+    @Override
+    public boolean isOccupied(Long roomId, Long excludedEventId, LocalDateTime startTime, LocalDateTime endTime) {
+        return timeline(roomId).overlaps(excludedEventId, startTime, endTime);
+    }
+
+    @Override
+    public List<BookingIntervalDTO> getBookings(Long roomId, LocalDateTime from, LocalDateTime to) {
+        return timeline(roomId).between(from, to);
+    }
+
+    @Override
+    public void onEventSaved(Event event) {
+        BookingIntervalDTO booking = new BookingIntervalDTO(
+                event.getId(), event.getRoom().getId(), event.getStartTime(), event.getEndTime());
+        afterCommit(() -> {
+            modifications.incrementAndGet();
+            remove(bookingsByEvent.put(booking.getEventId(), booking));
+            timelines.computeIfPresent(booking.getRoomId(), (id, timeline) -> timeline.add(booking));
+        });
+    }
+
+    @Override
+    public void onEventDeleted(Event event) {
+        Long eventId = event.getId();
+        afterCommit(() -> {
+            modifications.incrementAndGet();
+            remove(bookingsByEvent.remove(eventId));
+        });
+    }
+
+    @Override
+    public void invalidateRoom(Long roomId) {
+        modifications.incrementAndGet();
+        RoomTimeline timeline = timelines.remove(roomId);
+        if (timeline != null) {
+            timeline.eventIds().forEach(eventId -> bookingsByEvent.remove(eventId));
+        }
+    }
+
+    private void remove(BookingIntervalDTO booking) {
+        if (booking != null) {
+            timelines.computeIfPresent(booking.getRoomId(), (id, timeline) -> timeline.remove(booking));
+        }
+    }
+
+    private RoomTimeline timeline(Long roomId) {
+        RoomTimeline timeline = timelines.get(roomId);
+        while (timeline == null) {
+            long version = modifications.get();
+            List<BookingIntervalDTO> bookings = eventRepository.findBookingIntervalsEndingAfter(roomId, horizon());
+            RoomTimeline loaded = buildTimeline(bookings);
+
+            RoomTimeline existing = timelines.putIfAbsent(roomId, loaded);
+            if (existing != null) {
+                return existing;
+            }
+            bookings.forEach(booking -> bookingsByEvent.putIfAbsent(booking.getEventId(), booking));
+
+            if (modifications.get() == version) {
+                timeline = loaded;
+            } else {
+                // изменение могло пройти мимо ещё не добавленного расписания
+                timelines.remove(roomId, loaded);
+                bookings.forEach(booking -> bookingsByEvent.remove(booking.getEventId(), booking));
+            }
+        }
+        return timeline;
+    }
+
+    private static RoomTimeline buildTimeline(List<BookingIntervalDTO> bookings) {
+        RoomTimeline timeline = new RoomTimeline();
+        bookings.forEach(timeline::add);
+        return timeline;
+    }
+
+    private static LocalDateTime horizon() {
+        return LocalDateTime.now().toLocalDate().atStartOfDay();
+    }
+
+    private record BookingKey(LocalDateTime startTime, long eventId) {
+
+        private static final Comparator<BookingKey> ORDER = Comparator
+                .comparing(BookingKey::startTime)
+                .thenComparingLong(BookingKey::eventId);
+    }
+
+    /**
+     * Бронирования одного помещения, упорядоченные по времени начала. Максимальная
+     * длительность бронирования только растёт, что не влияет на корректность поиска.
+     */
+    private static final class RoomTimeline {
+
+        private final ConcurrentSkipListMap<BookingKey, BookingIntervalDTO> bookings =
+                new ConcurrentSkipListMap<>(BookingKey.ORDER);
+
+        private final AtomicReference<Duration> maxDuration = new AtomicReference<>(Duration.ZERO);
+
+        RoomTimeline add(BookingIntervalDTO booking) {
+            bookings.put(new BookingKey(booking.getStartTime(), booking.getEventId()), booking);
+            Duration duration = Duration.between(booking.getStartTime(), booking.getEndTime());
+            maxDuration.accumulateAndGet(duration, (current, candidate) ->
+                    current.compareTo(candidate) >= 0 ? current : candidate);
+            return this;
+        }
+
+        RoomTimeline remove(BookingIntervalDTO booking) {
+            bookings.remove(new BookingKey(booking.getStartTime(), booking.getEventId()));
+            return this;
+        }
+
+        List<Long> eventIds() {
+            return bookings.keySet().stream().map(BookingKey::eventId).toList();
+        }
+
+        boolean overlaps(Long excludedEventId, LocalDateTime startTime, LocalDateTime endTime) {
+            return candidates(startTime, endTime)
+                    .filter(booking -> excludedEventId == null || !booking.getEventId().equals(excludedEventId))
+                    .anyMatch(booking -> !startTime.isAfter(booking.getEndTime()) &&
+                            !endTime.isBefore(booking.getStartTime()));
+        }
+
+        List<BookingIntervalDTO> between(LocalDateTime startTime, LocalDateTime endTime) {
+            return candidates(startTime, endTime)
+                    .filter(booking -> !booking.getEndTime().isBefore(startTime))
+                    .toList();
+        }
+
+        private Stream<BookingIntervalDTO> candidates(LocalDateTime startTime, LocalDateTime endTime) {
+            BookingKey from = new BookingKey(startTime.minus(maxDuration.get()), Long.MIN_VALUE);
+            BookingKey to = new BookingKey(endTime, Long.MAX_VALUE);
+
+            return bookings.subMap(from, true, to, true).values().stream();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Фильтр Блума по нормализованным email известных участников. Если фильтр отвечает, что
+ * email не встречался, поиск участника в БД при регистрации не нужен.
+ * <p>
+ * Фильтр заполняется при запуске и дополняется при добавлении участников на этом узле.
+ * Участники, добавленные другими узлами, фильтру неизвестны, поэтому вставка нового участника
+ * должна проверять уникальность сама ({@code ON CONFLICT}). Пока фильтр не загружен,
+ * любой email считается возможно известным.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParticipantEmailFilter {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${participant.email-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${participant.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        BloomFilter emails = filter();
+        try {
+            int[] count = {0};
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(
+                        "SELECT email_normalized FROM participants WHERE deleted = false");
+                statement.setFetchSize(10_000);
+                return statement;
+            }, resultSet -> {
+                emails.put(resultSet.getString(1));
+                count[0]++;
+            });
+            loaded = true;
+            log.info("Фильтр email участников загружен: {} адресов", count[0]);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось загрузить фильтр email участников, поиск будет выполняться всегда", e);
+        }
+    }
+
+    /**
+     * @return {@code false}, если участника с таким email точно нет
+     */
+    public boolean mightExist(String emailNormalized) {
+        return !loaded || filter().mightContain(emailNormalized);
+    }
+
+    public void add(String emailNormalized) {
+        filter().put(emailNormalized);
+    }
+
+    private BloomFilter filter() {
+        BloomFilter current = filter;
+        if (current == null) {
+            synchronized (this) {
+                if (filter == null) {
+                    filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+                }
+                current = filter;
+            }
+        }
+        return current;
+    }
+}
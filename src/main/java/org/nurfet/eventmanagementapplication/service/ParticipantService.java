@@ -1,23 +1,26 @@
 package org.nurfet.eventmanagementapplication.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.config.CacheConfig;
 import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
 import org.nurfet.eventmanagementapplication.dto.ParticipantDTO;
 import org.nurfet.eventmanagementapplication.exception.ResourceNotFoundException;
-import org.nurfet.eventmanagementapplication.model.Event;
 import org.nurfet.eventmanagementapplication.model.Participant;
 import org.nurfet.eventmanagementapplication.repository.EventRepository;
 import org.nurfet.eventmanagementapplication.repository.ParticipantRepository;
+import org.nurfet.eventmanagementapplication.repository.WaitlistRepository;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 @Slf4j
 @Service
+@Timed("app.service")
 @RequiredArgsConstructor
 public class ParticipantService {
 
@@ -25,9 +28,15 @@ public class ParticipantService {
 
     private final EventRepository eventRepository;
 
+    private final WaitlistRepository waitlistRepository;
+
+    private final CacheInvalidator cacheInvalidator;
+
+    private final ParticipantEmailFilter emailFilter;
+
+    @Cacheable(cacheNames = CacheConfig.PARTICIPANTS, key = "#id", sync = true)
     public ParticipantDTO getParticipant(Long id) {
-        return participantRepository.findByIdAndDeletedFalse(id)
-                .map(this::convertToDTO)
+        return participantRepository.findDTOByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Участник не найден"));
     }
 
@@ -37,21 +46,19 @@ public class ParticipantService {
                 .orElseThrow(() -> new ResourceNotFoundException("Участник не найден"));
 
         // Проверяем, есть ли активные события у участника
-        List<Event> activeEvents = eventRepository.findByParticipantId(id)
-                .stream()
-                .filter(event -> !event.isDeleted() &&
-                        event.getEndTime().isAfter(LocalDateTime.now()))
-                .toList();
+        long activeEvents = eventRepository.countActiveByParticipantId(id, LocalDateTime.now());
 
-        log.info("Найдено {} активных событий для участника {}", activeEvents.size(), id);
+        log.info("Найдено {} активных событий для участника {}", activeEvents, id);
 
-        if (!activeEvents.isEmpty()) {
-            String errorMessage = String.format("Невозможно удалить участника %d с активными событиями", activeEvents.size());
+        if (activeEvents > 0) {
+            String errorMessage = String.format("Невозможно удалить участника %d с активными событиями", activeEvents);
             log.warn(errorMessage);
             throw new IllegalStateException(errorMessage);
         }
 
+        waitlistRepository.deleteByParticipantId(id);
         participantRepository.softDelete(id);
+        cacheInvalidator.evictParticipant(id);
     }
 
     @Transactional
@@ -60,11 +67,13 @@ public class ParticipantService {
                 .orElseThrow(() -> new ResourceNotFoundException("Участник не найден"));
 
         // Проверяем, не занят ли email другим участником
-        if (!participant.getEmail().equals(dto.getEmail())) {
-            Optional<Participant> existingParticipant = participantRepository.findByEmail(dto.getEmail());
+        String emailNormalized = Participant.normalizeEmail(dto.getEmail());
+        if (!participant.getEmailNormalized().equals(emailNormalized)) {
+            Optional<Participant> existingParticipant = participantRepository.findByEmailNormalized(emailNormalized);
             if (existingParticipant.isPresent() && !existingParticipant.get().getId().equals(id)) {
                 throw new IllegalStateException("Электронная почта уже используется другим участником");
             }
+            emailFilter.add(emailNormalized);
         }
 
         participant.setFirstName(dto.getFirstName());
@@ -73,6 +82,7 @@ public class ParticipantService {
         participant.setPhone(dto.getPhone());
 
         participant = participantRepository.save(participant);
+        cacheInvalidator.evictParticipant(id);
         return convertToDTO(participant);
     }
 
@@ -0,0 +1,120 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.dto.ParticipantDigestDTO;
+import org.nurfet.eventmanagementapplication.dto.ReminderDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сводка напоминаний: одно письмо участнику со всеми его мероприятиями на день вместо
+ * отдельного письма о каждом мероприятии. Используется в режиме {@code reminder.mode=digest}.
+ * <p>
+ * Участники и их мероприятия выбираются одним запросом с группировкой по участнику. Результат
+ * читается курсором порциями по {@code reminder.chunk-size} строк и порциями же ставится
+ * в очередь исходящих писем, поэтому объём памяти не зависит от числа участников.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderDigestService {
+
+    private static final String DIGEST_SQL = "SELECT p.id, p.email, " +
+            "array_agg(e.id ORDER BY e.start_time, e.id), " +
+            "array_agg(e.name ORDER BY e.start_time, e.id), " +
+            "array_agg(e.start_time ORDER BY e.start_time, e.id) " +
+            "FROM event_participants ep " +
+            "JOIN events e ON e.id = ep.event_id " +
+            "JOIN participants p ON p.id = ep.participant_id " +
+            "WHERE e.deleted = false AND p.deleted = false AND e.start_time >= ? AND e.start_time < ? " +
+            "GROUP BY p.id, p.email";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EmailOutboxService outboxService;
+
+    private final SchedulerLeaseService leaseService;
+
+    @Value("${reminder.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Ставит в очередь сводки мероприятий, начинающихся в день {@code day}.
+     *
+     * @return число добавленных писем
+     */
+    @Transactional
+    public int enqueueDigests(LocalDate day) {
+        return enqueue(day, () -> {
+        });
+    }
+
+    /**
+     * Ставит в очередь сводки мероприятий дня {@code day} от имени держателя аренды
+     * {@code leaseName} с номером {@code fencingToken}. Аренда продлевается перед каждой порцией,
+     * а перед фиксацией номер проверяется и день отмечается завершённым
+     * ({@link SchedulerLeaseService#complete}). Если аренда перешла к другому узлу, выбрасывается
+     * {@link IllegalStateException} и все порции откатываются.
+     *
+     * @return число добавленных писем
+     */
+    @Transactional
+    public int enqueueDigests(LocalDate day, String leaseName, long fencingToken) {
+        int enqueued = enqueue(day, () -> leaseService.renew(leaseName, fencingToken));
+        leaseService.complete(leaseName, fencingToken, day.toString());
+        return enqueued;
+    }
+
+    private int enqueue(LocalDate day, Runnable beforeChunk) {
+        List<ParticipantDigestDTO> chunk = new ArrayList<>(chunkSize);
+        int[] enqueued = {0};
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DIGEST_SQL);
+            statement.setFetchSize(chunkSize);
+            statement.setTimestamp(1, Timestamp.valueOf(day.atStartOfDay()));
+            statement.setTimestamp(2, Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+            return statement;
+        }, resultSet -> {
+            chunk.add(toDigest(resultSet));
+            if (chunk.size() == chunkSize) {
+                beforeChunk.run();
+                enqueued[0] += outboxService.enqueueDigests(chunk, day);
+                chunk.clear();
+            }
+        });
+
+        if (!chunk.isEmpty()) {
+            beforeChunk.run();
+            enqueued[0] += outboxService.enqueueDigests(chunk, day);
+        }
+        log.info("Сводки напоминаний на {}: в очередь поставлено писем {}", day, enqueued[0]);
+        return enqueued[0];
+    }
+
+    private static ParticipantDigestDTO toDigest(ResultSet resultSet) throws SQLException {
+        Long participantId = resultSet.getLong(1);
+        Long[] eventIds = (Long[]) resultSet.getArray(3).getArray();
+        String[] eventNames = (String[]) resultSet.getArray(4).getArray();
+        Timestamp[] startTimes = (Timestamp[]) resultSet.getArray(5).getArray();
+
+        String email = resultSet.getString(2);
+        List<ReminderDTO> events = new ArrayList<>(eventIds.length);
+        for (int i = 0; i < eventIds.length; i++) {
+            events.add(new ReminderDTO(eventIds[i], eventNames[i], startTimes[i].toLocalDateTime(),
+                    participantId, email));
+        }
+        return new ParticipantDigestDTO(participantId, email, events);
+    }
+}
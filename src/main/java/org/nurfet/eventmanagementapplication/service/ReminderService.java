@@ -0,0 +1,248 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO;
+import org.nurfet.eventmanagementapplication.dto.ReminderDTO;
+import org.nurfet.eventmanagementapplication.model.Event;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+import org.nurfet.eventmanagementapplication.service.SchedulerLeaseService.Partition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.nurfet.eventmanagementapplication.service.TransactionCallbacks.afterCommit;
+
+/**
+ * Напоминания о мероприятиях за заданное время до начала ({@code reminder.offsets}, например
+ * за сутки, за час и за 10 минут).
+ * <p>
+ * Моменты отправки хранятся в колесе таймеров в памяти. Мероприятия загружаются из базы
+ * порциями по мере продвижения горизонта ({@link #loadUpcoming()} читает только мероприятия,
+ * начинающиеся после ранее загруженных), а изменения времени начала поступают от
+ * {@link EventService} после фиксации транзакции. Срабатывание напоминания ставит письма
+ * участникам в очередь исходящих писем.
+ * <p>
+ * При нескольких узлах каждый узел загружает только свою часть мероприятий
+ * ({@link SchedulerLeaseService#partition()}). Когда состав узлов меняется, колесо
+ * перезагружается, а напоминания, срок которых наступил за последние {@code reminder.catch-up},
+ * отправляются сразу: письма, уже поставленные в очередь прежним узлом, повторно не добавятся.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderService {
+
+    private final EventRepository eventRepository;
+
+    private final EmailOutboxService outboxService;
+
+    private final SchedulerLeaseService leaseService;
+
+    @Value("${reminder.offsets:PT24H,PT1H,PT10M}")
+    private List<Duration> offsets;
+
+    @Value("${reminder.tick:PT10S}")
+    private Duration tick;
+
+    @Value("${reminder.load-ahead:PT1H}")
+    private Duration loadAhead;
+
+    @Value("${reminder.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${reminder.catch-up:PT2M}")
+    private Duration catchUp;
+
+    private TimingWheel<ReminderTimer> wheel;
+
+    private Partition wheelPartition;
+
+    private final Map<Long, List<TimingWheel.Timer<ReminderTimer>>> timersByEvent = new HashMap<>();
+
+    /**
+     * Граница загруженных мероприятий: все мероприятия, начинающиеся не позже неё, уже в колесе.
+     */
+    private LocalDateTime loadedUntil;
+
+    /**
+     * @return число загруженных мероприятий
+     */
+    public int loadUpcoming() {
+        return loadUpcoming(LocalDateTime.now());
+    }
+
+    /**
+     * @return число писем, поставленных в очередь
+     */
+    public int tick() {
+        LocalDateTime now = LocalDateTime.now();
+        if (partitionChanged()) {
+            loadUpcoming(now);
+        }
+        return fireDue(now);
+    }
+
+    /**
+     * Перепланирует напоминания мероприятия после создания или изменения времени начала.
+     */
+    public void onEventSaved(Event event) {
+        Long eventId = event.getId();
+        LocalDateTime startTime = event.getStartTime();
+        afterCommit(() -> reschedule(eventId, startTime));
+    }
+
+    public void onEventDeleted(Event event) {
+        Long eventId = event.getId();
+        afterCommit(() -> cancel(eventId));
+    }
+
+    synchronized int loadUpcoming(LocalDateTime now) {
+        LocalDateTime notBefore = now.minus(tick);
+        if (partitionChanged()) {
+            Partition partition = leaseService.partition();
+            // колесо покрывает весь горизонт загрузки, поэтому таймеры не ждут в ячейках лишних оборотов
+            wheel = new TimingWheel<>(tick.toMillis(),
+                    TimingWheel.sizeFor(maxOffset().plus(loadAhead).toMillis(), tick.toMillis()), toMillis(now));
+            wheelPartition = partition;
+            timersByEvent.clear();
+            loadedUntil = now;
+            notBefore = now.minus(catchUp);
+        }
+
+        LocalDateTime horizon = now.plus(maxOffset()).plus(loadAhead);
+        if (!horizon.isAfter(loadedUntil)) {
+            return 0;
+        }
+
+        List<BookingIntervalDTO> events = eventRepository.findBookingIntervalsStartingBetween(
+                loadedUntil, horizon, wheelPartition.count(), wheelPartition.index());
+        LocalDateTime scheduleFrom = notBefore;
+        events.forEach(event -> schedule(event.getEventId(), event.getStartTime(), scheduleFrom));
+        loadedUntil = horizon;
+        log.debug("Загружено мероприятий для напоминаний: {}, горизонт {}", events.size(), horizon);
+        return events.size();
+    }
+
+    int fireDue(LocalDateTime now) {
+        List<ReminderTimer> due = new ArrayList<>();
+        synchronized (this) {
+            if (wheel == null) {
+                return 0;
+            }
+            for (TimingWheel.Timer<ReminderTimer> timer : wheel.advance(toMillis(now))) {
+                forget(timer);
+                due.add(timer.payload());
+            }
+        }
+
+        int total = 0;
+        for (ReminderTimer timer : due) {
+            try {
+                int enqueued = enqueueReminders(timer);
+                total += enqueued;
+                log.info("Напоминание за {} о мероприятии {}: в очередь поставлено писем {}",
+                        timer.offset(), timer.eventId(), enqueued);
+            } catch (RuntimeException e) {
+                log.error("Не удалось поставить в очередь напоминание за {} о мероприятии {}",
+                        timer.offset(), timer.eventId(), e);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Изменения планируются на узле, который их выполнил, даже если мероприятие относится
+     * к части другого узла: таймер с прежним временем начала на том узле писем не поставит.
+     */
+    private synchronized void reschedule(Long eventId, LocalDateTime startTime) {
+        cancel(eventId);
+        if (loadedUntil != null && !startTime.isAfter(loadedUntil)) {
+            schedule(eventId, startTime, LocalDateTime.now().minus(tick));
+        }
+    }
+
+    private synchronized boolean partitionChanged() {
+        return wheel == null || !leaseService.partition().equals(wheelPartition);
+    }
+
+    private synchronized void cancel(Long eventId) {
+        List<TimingWheel.Timer<ReminderTimer>> timers = timersByEvent.remove(eventId);
+        if (timers != null) {
+            timers.forEach(TimingWheel.Timer::cancel);
+        }
+    }
+
+    /**
+     * Планирует напоминания мероприятия, кроме тех, срок которых наступил раньше {@code notBefore}.
+     */
+    private void schedule(Long eventId, LocalDateTime startTime, LocalDateTime notBefore) {
+        for (Duration offset : offsets) {
+            LocalDateTime fireAt = startTime.minus(offset);
+            if (fireAt.isBefore(notBefore)) {
+                continue;
+            }
+            TimingWheel.Timer<ReminderTimer> timer = wheel.schedule(toMillis(fireAt),
+                    new ReminderTimer(eventId, startTime, offset));
+            timersByEvent.computeIfAbsent(eventId, id -> new ArrayList<>()).add(timer);
+        }
+    }
+
+    private void forget(TimingWheel.Timer<ReminderTimer> timer) {
+        Long eventId = timer.payload().eventId();
+        List<TimingWheel.Timer<ReminderTimer>> timers = timersByEvent.get(eventId);
+        if (timers != null) {
+            timers.remove(timer);
+            if (timers.isEmpty()) {
+                timersByEvent.remove(eventId);
+            }
+        }
+    }
+
+    /**
+     * Ставит письма участникам мероприятия в очередь порциями. Участники выбираются только
+     * если мероприятие не удалено и время его начала не изменилось (например, на другом узле).
+     */
+    private int enqueueReminders(ReminderTimer timer) {
+        PageRequest chunk = PageRequest.of(0, chunkSize);
+        String emailType = EmailOutboxService.reminderType(timer.offset());
+        long cursorParticipantId = 0;
+        int enqueued = 0;
+
+        List<ReminderDTO> reminders;
+        do {
+            reminders = eventRepository.findEventRemindersAfter(
+                    timer.eventId(), timer.startTime(), cursorParticipantId, chunk);
+            if (!reminders.isEmpty()) {
+                enqueued += outboxService.enqueueReminders(reminders, emailType);
+                cursorParticipantId = reminders.get(reminders.size() - 1).getParticipantId();
+            }
+        } while (reminders.size() == chunkSize);
+
+        return enqueued;
+    }
+
+    private Duration maxOffset() {
+        return offsets.isEmpty() ? Duration.ZERO : Collections.max(offsets);
+    }
+
+    /**
+     * Местное время переводится в миллисекунды без учёта часового пояса: колесу нужна только
+     * монотонная шкала, согласованная со временем мероприятий.
+     */
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private record ReminderTimer(Long eventId, LocalDateTime startTime, Duration offset) {
+    }
+}
@@ -0,0 +1,45 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO;
+import org.nurfet.eventmanagementapplication.model.Event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Индекс бронирований помещений, используемый для проверки пересечений при создании
+ * и изменении мероприятий. Реализация выбирается свойством {@code booking.index}:
+ * {@code memory} (по умолчанию) или {@code database}.
+ */
+public interface RoomBookingIndex {
+
+    /**
+     * Проверяет, занято ли помещение в указанный промежуток времени. Бронирования,
+     * касающиеся границами, считаются пересекающимися.
+     *
+     * @param excludedEventId мероприятие, которое не учитывается при проверке (при обновлении), может быть {@code null}
+     */
+    boolean isOccupied(Long roomId, Long excludedEventId, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * Возвращает бронирования помещения, пересекающиеся с промежутком {@code [from, to]},
+     * упорядоченные по времени начала.
+     */
+    List<BookingIntervalDTO> getBookings(Long roomId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Вызывается после сохранения мероприятия (создания или изменения времени/помещения).
+     */
+    void onEventSaved(Event event);
+
+    /**
+     * Вызывается после удаления мероприятия.
+     */
+    void onEventDeleted(Event event);
+
+    /**
+     * Сбрасывает сведения о помещении, например, если база данных отклонила бронирование,
+     * которое индекс считал допустимым (бронирование сделано другим узлом).
+     */
+    void invalidateRoom(Long roomId);
+}
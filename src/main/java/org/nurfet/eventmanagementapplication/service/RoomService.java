@@ -1,27 +1,49 @@
 package org.nurfet.eventmanagementapplication.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.nurfet.eventmanagementapplication.config.CacheConfig;
+import org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO;
+import org.nurfet.eventmanagementapplication.dto.FreeSlotDTO;
 import org.nurfet.eventmanagementapplication.dto.RoomDTO;
 import org.nurfet.eventmanagementapplication.exception.ResourceNotFoundException;
-import org.nurfet.eventmanagementapplication.model.Event;
 import org.nurfet.eventmanagementapplication.model.Room;
 import org.nurfet.eventmanagementapplication.repository.EventRepository;
 import org.nurfet.eventmanagementapplication.repository.RoomRepository;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Timed("app.service")
 @RequiredArgsConstructor
 public class RoomService {
 
+    private static final int MAX_FREE_SLOTS = 100;
+
+    /**
+     * Бронирования, касающиеся границами, пересекаются, поэтому свободный промежуток
+     * начинается через минуту после окончания мероприятия и заканчивается за минуту до начала следующего.
+     */
+    private static final Duration BOOKING_GAP = Duration.ofMinutes(1);
+
     private final RoomRepository roomRepository;
 
     private final EventRepository eventRepository;
 
+    private final RoomBookingIndex roomBookingIndex;
+
+    private final CacheInvalidator cacheInvalidator;
+
+    private final WaitlistService waitlistService;
+
     @Transactional
     public RoomDTO createRoom(RoomDTO dto) {
         Room room = new Room();
@@ -29,14 +51,16 @@ public class RoomService {
         room.setCapacity(dto.getCapacity());
 
         room = roomRepository.save(room);
+        cacheInvalidator.evictRoom(room.getId(), false);
         return convertToDTO(room);
     }
 
-    public List<RoomDTO> getAvailableRooms(LocalDateTime startTime, LocalDateTime endTime) {
-        List<RoomDTO> availableRooms = roomRepository.findAvailableRooms(startTime, endTime)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<RoomDTO> getAvailableRooms(LocalDateTime startTime, LocalDateTime endTime, int minCapacity) {
+        if (endTime.isBefore(startTime)) {
+            throw new IllegalArgumentException("Время окончания не может быть раньше времени начала");
+        }
+
+        List<RoomDTO> availableRooms = roomRepository.findAvailableRooms(startTime, endTime, minCapacity);
 
         if (availableRooms.isEmpty()) {
             throw new ResourceNotFoundException("Не найдено ни одного доступного помещения на указанный период времени");
@@ -45,9 +69,87 @@ public class RoomService {
         return availableRooms;
     }
 
+    /**
+     * Находит ближайшие свободные промежутки длительностью не меньше {@code duration} во всех
+     * помещениях вместимостью не меньше {@code minCapacity}. Для каждого помещения бронирования
+     * берутся из индекса в порядке начала и просматриваются один раз; просмотр помещения
+     * прекращается, как только найдено {@code limit} промежутков.
+     *
+     * @param from начало поиска, по умолчанию текущее время
+     * @param to   конец поиска, по умолчанию через месяц после начала
+     */
+    public List<FreeSlotDTO> findFreeSlots(Duration duration, LocalDateTime from, LocalDateTime to,
+                                           int minCapacity, int limit) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Длительность должна быть положительной");
+        }
+
+        if (limit < 1 || limit > MAX_FREE_SLOTS) {
+            throw new IllegalArgumentException(
+                    String.format("Количество промежутков должно быть от 1 до %d", MAX_FREE_SLOTS));
+        }
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plus(BOOKING_GAP);
+        LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime end = to == null ? start.plusMonths(1) : to;
+
+        if (start.plus(duration).isAfter(end)) {
+            throw new IllegalArgumentException("Промежуток поиска короче запрошенной длительности");
+        }
+
+        List<FreeSlotDTO> slots = new ArrayList<>();
+        for (RoomDTO room : roomRepository.findDTOsWithCapacityAtLeast(minCapacity)) {
+            List<BookingIntervalDTO> bookings = roomBookingIndex.getBookings(room.getId(), start, end);
+            slots.addAll(findRoomFreeSlots(room, bookings, duration, start, end, limit));
+        }
+
+        return slots.stream()
+                .sorted(Comparator.comparing(FreeSlotDTO::getStartTime).thenComparing(FreeSlotDTO::getRoomId))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Проход по упорядоченным бронированиям помещения: промежуток между концом предыдущего
+     * и началом следующего бронирования подходит, если в нём помещается {@code duration}.
+     */
+    static List<FreeSlotDTO> findRoomFreeSlots(RoomDTO room, List<BookingIntervalDTO> bookings, Duration duration,
+                                               LocalDateTime from, LocalDateTime to, int limit) {
+        List<FreeSlotDTO> slots = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+
+        for (BookingIntervalDTO booking : bookings) {
+            if (slots.size() == limit) {
+                return slots;
+            }
+
+            LocalDateTime freeUntil = booking.getStartTime().minus(BOOKING_GAP);
+            addFreeSlot(slots, room, duration, freeFrom, freeUntil.isBefore(to) ? freeUntil : to);
+
+            LocalDateTime afterBooking = booking.getEndTime().plus(BOOKING_GAP);
+            if (afterBooking.isAfter(freeFrom)) {
+                freeFrom = afterBooking;
+            }
+        }
+
+        if (slots.size() < limit) {
+            addFreeSlot(slots, room, duration, freeFrom, to);
+        }
+
+        return slots;
+    }
+
+    private static void addFreeSlot(List<FreeSlotDTO> slots, RoomDTO room, Duration duration,
+                                    LocalDateTime freeFrom, LocalDateTime freeUntil) {
+        LocalDateTime slotEnd = freeFrom.plus(duration);
+        if (!slotEnd.isAfter(freeUntil)) {
+            slots.add(new FreeSlotDTO(room.getId(), room.getName(), room.getCapacity(), freeFrom, slotEnd, freeUntil));
+        }
+    }
+
+    @Cacheable(cacheNames = CacheConfig.ROOMS, key = "#id", sync = true)
     public RoomDTO getRoom(Long id) {
-        return roomRepository.findByIdAndDeletedFalse(id)
-                .map(this::convertToDTO)
+        return roomRepository.findDTOByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Помещение не найдено"));
     }
 
@@ -57,20 +159,16 @@ public class RoomService {
                 .orElseThrow(() -> new ResourceNotFoundException("Помещение не найдено"));
 
         // Проверяем, есть ли активные события в этом помещении
-        List<Event> activeEvents = eventRepository.findEventsBetweenDates(
-                        LocalDateTime.now(),
-                        LocalDateTime.now().plusYears(100)
-                ).stream()
-                .filter(event -> event.getRoom().getId().equals(id) && !event.isDeleted())
-                .toList();
+        long activeEvents = eventRepository.countActiveByRoomId(id, LocalDateTime.now());
 
-        if (!activeEvents.isEmpty()) {
+        if (activeEvents > 0) {
             throw new IllegalStateException(
-                    String.format("Невозможно удалить помещение %d с активными событиями", activeEvents.size())
+                    String.format("Невозможно удалить помещение %d с активными событиями", activeEvents)
             );
         }
 
         roomRepository.softDelete(id);
+        cacheInvalidator.evictRoom(id, false);
     }
 
     private RoomDTO convertToDTO(Room room) {
@@ -88,29 +186,28 @@ public class RoomService {
 
         // Проверяем, не уменьшается ли вместимость при наличии активных событий
         if (dto.getCapacity() < room.getCapacity()) {
-            List<Event> activeEvents = eventRepository.findEventsBetweenDates(
-                            LocalDateTime.now(),
-                            LocalDateTime.now().plusYears(100)
-                    ).stream()
-                    .filter(event -> event.getRoom().getId().equals(id) && !event.isDeleted())
-                    .toList();
-
-            if (!activeEvents.isEmpty()) {
+            if (eventRepository.countActiveByRoomId(id, LocalDateTime.now()) > 0) {
                 throw new IllegalStateException("Невозможно уменьшить вместимость помещения при активных мероприятиях");
             }
         }
 
+        boolean nameChanged = !room.getName().equals(dto.getName());
+        boolean capacityIncreased = dto.getCapacity() > room.getCapacity();
         room.setName(dto.getName());
         room.setCapacity(dto.getCapacity());
 
-        room = roomRepository.save(room);
+        room = roomRepository.saveAndFlush(room);
+        cacheInvalidator.evictRoom(id, nameChanged);
+
+        // новые места занимают участники из листов ожидания мероприятий в этом помещении
+        if (capacityIncreased) {
+            waitlistService.promoteInRoom(id);
+        }
         return convertToDTO(room);
     }
 
+    @Cacheable(cacheNames = CacheConfig.ROOM_LIST, sync = true)
     public List<RoomDTO> getAllRooms() {
-        return roomRepository.findAll().stream()
-                .filter(room -> !room.isDeleted())
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return roomRepository.findAllDTOs();
     }
 }
@@ -0,0 +1,169 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Согласование задач по расписанию между узлами, работающими с одной БД.
+ * <p>
+ * Задачи, которые должен выполнять один узел, берут аренду в таблице scheduler_leases
+ * ({@link #tryAcquire(String)}). Аренда действует {@code scheduler.lease-ttl} и продлевается
+ * держателем; номер аренды (fencing token) увеличивается при каждой смене держателя, поэтому
+ * узел, потерявший аренду во время работы, узнаёт об этом при продлении. Результаты работы
+ * держатель записывает в одной транзакции с проверкой номера ({@link #complete}), поэтому
+ * записи узла с устаревшим номером откатываются.
+ * <p>
+ * Задачи, которые можно разделить, распределяются по работающим узлам: каждый узел периодически
+ * отмечается в таблице scheduler_nodes ({@link #heartbeat()}), а его часть работы
+ * ({@link #partition()}) определяется его номером среди узлов, отмечавшихся не раньше
+ * {@code scheduler.node-ttl} назад. Время берётся из часов БД, чтобы расхождение часов узлов
+ * не влияло на сроки.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SchedulerLeaseService {
+
+    private static final String ACQUIRE_SQL = "INSERT INTO scheduler_leases AS l (name, holder, expires_at, fencing_token) " +
+            "VALUES (?, ?, LOCALTIMESTAMP + make_interval(secs => ?), 1) " +
+            "ON CONFLICT (name) DO UPDATE SET holder = EXCLUDED.holder, expires_at = EXCLUDED.expires_at, " +
+            "fencing_token = CASE WHEN l.holder = EXCLUDED.holder AND l.expires_at >= LOCALTIMESTAMP " +
+            "THEN l.fencing_token ELSE l.fencing_token + 1 END " +
+            "WHERE l.holder = EXCLUDED.holder OR l.expires_at < LOCALTIMESTAMP " +
+            "RETURNING fencing_token";
+
+    private static final String COMPLETE_SQL = "UPDATE scheduler_leases " +
+            "SET completed_run = ?, expires_at = LOCALTIMESTAMP + make_interval(secs => ?) " +
+            "WHERE name = ? AND holder = ? AND fencing_token = ?";
+
+    private static final String HEARTBEAT_SQL = "INSERT INTO scheduler_nodes (node_id, heartbeat_at) " +
+            "VALUES (?, LOCALTIMESTAMP) ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = LOCALTIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Getter
+    @Value("${scheduler.node-id:#{T(java.util.UUID).randomUUID().toString()}}")
+    private String nodeId;
+
+    @Value("${scheduler.lease-ttl:PT10M}")
+    private Duration leaseTtl;
+
+    @Value("${scheduler.node-ttl:PT30S}")
+    private Duration nodeTtl;
+
+    private volatile Partition partition = Partition.SINGLE;
+
+    /**
+     * Берёт или продлевает аренду задачи {@code name}.
+     *
+     * @return номер аренды или пустое значение, если аренда у другого узла
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public OptionalLong tryAcquire(String name) {
+        List<Long> tokens = jdbcTemplate.queryForList(ACQUIRE_SQL, Long.class, name, nodeId, seconds(leaseTtl));
+        return tokens.isEmpty() ? OptionalLong.empty() : OptionalLong.of(tokens.get(0));
+    }
+
+    /**
+     * Продлевает аренду, полученную с номером {@code fencingToken}.
+     *
+     * @throws IllegalStateException если аренда истекла и перешла к другому узлу
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void renew(String name, long fencingToken) {
+        OptionalLong current = tryAcquire(name);
+        if (current.isEmpty() || current.getAsLong() != fencingToken) {
+            throw new IllegalStateException("Аренда задачи " + name + " потеряна");
+        }
+    }
+
+    /**
+     * Отмечает запуск {@code run} задачи {@code name} завершённым, если аренда всё ещё принадлежит
+     * узлу с номером {@code fencingToken}. Вызывается последним в транзакции, записывающей
+     * результаты запуска: строка аренды остаётся заблокированной до фиксации, поэтому другой узел
+     * не может перехватить аренду между проверкой и фиксацией.
+     *
+     * @throws IllegalStateException если аренда перешла к другому узлу; транзакция откатывается
+     */
+    @Transactional
+    public void complete(String name, long fencingToken, String run) {
+        if (jdbcTemplate.update(COMPLETE_SQL, run, seconds(leaseTtl), name, nodeId, fencingToken) == 0) {
+            throw new IllegalStateException("Аренда задачи " + name + " потеряна");
+        }
+    }
+
+    /**
+     * Последний завершённый запуск задачи {@code name}.
+     */
+    public Optional<String> completedRun(String name) {
+        return jdbcTemplate.queryForList("SELECT completed_run FROM scheduler_leases WHERE name = ?", String.class, name)
+                .stream()
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    /**
+     * Отмечает узел работающим и пересчитывает его часть работы.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void heartbeat() {
+        jdbcTemplate.update(HEARTBEAT_SQL, nodeId);
+        jdbcTemplate.update("DELETE FROM scheduler_nodes WHERE heartbeat_at < LOCALTIMESTAMP - make_interval(secs => ?)",
+                seconds(nodeTtl));
+        List<String> nodes = jdbcTemplate.queryForList("SELECT node_id FROM scheduler_nodes ORDER BY node_id", String.class);
+
+        Partition current = new Partition(nodes.indexOf(nodeId), nodes.size());
+        if (!current.equals(partition)) {
+            log.info("Узел {}: часть работы {} из {}", nodeId, current.index() + 1, current.count());
+            partition = current;
+        }
+    }
+
+    /**
+     * Часть работы узла по данным последней отметки. До первой отметки узел считается
+     * единственным.
+     */
+    public Partition partition() {
+        return partition;
+    }
+
+    /**
+     * При остановке узел удаляет свою отметку, чтобы остальные узлы сразу приняли его работу.
+     */
+    @PreDestroy
+    public void leave() {
+        try {
+            jdbcTemplate.update("DELETE FROM scheduler_nodes WHERE node_id = ?", nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось удалить отметку узла {}", nodeId, e);
+        }
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+
+    /**
+     * Часть работы узла: объекты, остаток от деления id которых на {@code count} равен {@code index}.
+     */
+    public record Partition(int index, int count) {
+
+        public static final Partition SINGLE = new Partition(0, 1);
+
+        public boolean owns(long id) {
+            return Math.floorMod(id, count) == index;
+        }
+    }
+}
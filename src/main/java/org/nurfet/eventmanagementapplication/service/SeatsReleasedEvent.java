@@ -0,0 +1,8 @@
+package org.nurfet.eventmanagementapplication.service;
+
+/**
+ * На мероприятии освободились места: регистрация отменена или мероприятие удалено.
+ * Публикуется в транзакции изменения и обрабатывается после её фиксации.
+ */
+public record SeatsReleasedEvent(Long eventId) {
+}
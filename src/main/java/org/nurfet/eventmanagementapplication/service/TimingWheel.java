@@ -0,0 +1,105 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Хешированное колесо таймеров. Время делится на такты длиной {@code tickMillis}; таймер
+ * попадает в ячейку {@code такт % size}. За один такт просматривается одна ячейка, поэтому
+ * стоимость такта не зависит от общего числа таймеров, если колесо покрывает горизонт
+ * планирования. Таймеры дальше одного оборота остаются в ячейке до своего оборота.
+ * <p>
+ * Класс не потокобезопасен.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+
+    private final ArrayDeque<Timer<T>>[] buckets;
+
+    /**
+     * Следующий необработанный такт.
+     */
+    private long nextTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int size, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.nextTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Число ячеек колеса, при котором любой таймер не дальше {@code horizonMillis} от текущего
+     * такта срабатывает на первом же обороте: ни одна ячейка не просматривается впустую из-за
+     * таймеров следующих оборотов.
+     */
+    static int sizeFor(long horizonMillis, long tickMillis) {
+        return Math.toIntExact(Math.floorDiv(horizonMillis + tickMillis - 1, tickMillis) + 1);
+    }
+
+    /**
+     * Планирует таймер на момент {@code deadlineMillis}. Таймер с прошедшим сроком
+     * сработает на ближайшем такте.
+     */
+    Timer<T> schedule(long deadlineMillis, T payload) {
+        long tick = Math.max(deadlineMillis / tickMillis, nextTick);
+        Timer<T> timer = new Timer<>(tick, payload);
+        buckets[(int) (tick % buckets.length)].add(timer);
+        return timer;
+    }
+
+    /**
+     * Обрабатывает такты до момента {@code nowMillis} включительно.
+     *
+     * @return сработавшие таймеры в порядке тактов
+     */
+    List<Timer<T>> advance(long nowMillis) {
+        List<Timer<T>> expired = new ArrayList<>();
+        long lastTick = nowMillis / tickMillis;
+
+        for (; nextTick <= lastTick; nextTick++) {
+            Iterator<Timer<T>> bucket = buckets[(int) (nextTick % buckets.length)].iterator();
+            while (bucket.hasNext()) {
+                Timer<T> timer = bucket.next();
+                if (timer.cancelled) {
+                    bucket.remove();
+                } else if (timer.tick <= nextTick) {
+                    bucket.remove();
+                    expired.add(timer);
+                }
+            }
+        }
+        return expired;
+    }
+
+    static final class Timer<T> {
+
+        private final long tick;
+
+        private final T payload;
+
+        private boolean cancelled;
+
+        private Timer(long tick, T payload) {
+            this.tick = tick;
+            this.payload = payload;
+        }
+
+        /**
+         * Отменяет таймер. Запись удаляется из ячейки при её следующем просмотре.
+         */
+        void cancel() {
+            cancelled = true;
+        }
+
+        T payload() {
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.eventmanagementapplication.model.WaitlistEntry;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+import org.nurfet.eventmanagementapplication.repository.WaitlistRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Лист ожидания мероприятий. Участники, которым не хватило мест, ставятся в очередь
+ * и переводятся в зарегистрированные при освобождении мест в порядке постановки.
+ */
+@Slf4j
+@Service
+@Timed("app.service")
+@RequiredArgsConstructor
+public class WaitlistService {
+
+    private static final int PROMOTION_BATCH_SIZE = 500;
+
+    private static final String ADD_PARTICIPANT_SQL = "INSERT INTO event_participants (event_id, participant_id) " +
+            "VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    private final WaitlistRepository waitlistRepository;
+
+    private final EventRepository eventRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final CacheInvalidator cacheInvalidator;
+
+    /**
+     * Ставит участника в конец листа ожидания. Строка мероприятия блокируется, как в
+     * {@link #promote(Long)}: место, освобождённое после неудачной попытки регистрации, либо уже
+     * видно здесь, и очередь сразу продвигается, либо его перевод дождётся постановки в очередь.
+     *
+     * @return место участника в очереди, начиная с 1, или 0, если участник сразу переведён
+     * в участники мероприятия
+     */
+    @Transactional
+    public long enqueue(Long eventId, Long participantId) {
+        int freeSeats = eventRepository.lockFreeSeats(eventId).orElse(0);
+
+        if (waitlistRepository.enqueue(eventId, participantId) == 0) {
+            throw new IllegalStateException("Участник уже находится в листе ожидания этого мероприятия");
+        }
+
+        if (freeSeats > 0) {
+            promote(eventId, freeSeats);
+        }
+
+        return waitlistRepository.findPosition(eventId, participantId)
+                .map(position -> waitlistRepository.countUpToPosition(eventId, position))
+                .orElse(0L);
+    }
+
+    /**
+     * @return {@code true}, если участник был в листе ожидания
+     */
+    @Transactional
+    public boolean remove(Long eventId, Long participantId) {
+        return waitlistRepository.deleteByEventIdAndParticipantId(eventId, participantId) > 0;
+    }
+
+    /**
+     * Переводит в участники мероприятия первых из листа ожидания по числу свободных мест.
+     * Строка мероприятия блокируется до конца транзакции, чтобы параллельные переводы
+     * не заняли одни и те же места. Очередь читается с головы по индексу (event_id, position)
+     * порциями, участники добавляются пакетной вставкой.
+     *
+     * @return число переведённых участников
+     */
+    @Transactional
+    public int promote(Long eventId) {
+        return promote(eventId, eventRepository.lockFreeSeats(eventId).orElse(0));
+    }
+
+    /**
+     * Переводит участников во всех предстоящих мероприятиях помещения, например после
+     * увеличения его вместимости.
+     *
+     * @return число переведённых участников
+     */
+    @Transactional
+    public int promoteInRoom(Long roomId) {
+        int promoted = 0;
+        for (Long eventId : waitlistRepository.findWaitingEventIdsByRoomId(roomId, LocalDateTime.now())) {
+            promoted += promote(eventId);
+        }
+        return promoted;
+    }
+
+    /**
+     * @param freeSeats свободные места мероприятия, строка которого уже заблокирована
+     */
+    private int promote(Long eventId, int freeSeats) {
+        int promoted = 0;
+
+        while (promoted < freeSeats) {
+            int limit = Math.min(freeSeats - promoted, PROMOTION_BATCH_SIZE);
+            List<WaitlistEntry> head = waitlistRepository.findHead(eventId, PageRequest.of(0, limit));
+            if (head.isEmpty()) {
+                break;
+            }
+
+            int[][] inserted = jdbcTemplate.batchUpdate(ADD_PARTICIPANT_SQL, head, head.size(), (statement, entry) -> {
+                statement.setLong(1, eventId);
+                statement.setLong(2, entry.getParticipant().getId());
+            });
+            waitlistRepository.deleteByIds(head.stream().map(WaitlistEntry::getId).toList());
+
+            // участник мог зарегистрироваться напрямую, пока стоял в очереди: места он не занимает
+            for (int[] batch : inserted) {
+                for (int rows : batch) {
+                    if (rows != 0) {
+                        promoted++;
+                    }
+                }
+            }
+        }
+
+        if (promoted > 0) {
+            eventRepository.incrementRegisteredCount(eventId, promoted);
+            cacheInvalidator.evictEvent(eventId);
+            log.info("Из листа ожидания мероприятия {} переведено участников: {}", eventId, promoted);
+        }
+
+        return promoted;
+    }
+}
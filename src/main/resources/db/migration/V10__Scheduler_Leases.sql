@@ -0,0 +1,14 @@
+-- Аренды задач по расписанию: задачу выполняет только держатель неистёкшей аренды.
+-- Номер (fencing token) растёт при каждой смене держателя.
+CREATE TABLE scheduler_leases (
+    name VARCHAR(100) PRIMARY KEY,
+    holder VARCHAR(100) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    fencing_token BIGINT NOT NULL
+);
+
+-- Работающие узлы приложения, по ним распределяется обработка напоминаний
+CREATE TABLE scheduler_nodes (
+    node_id VARCHAR(100) PRIMARY KEY,
+    heartbeat_at TIMESTAMP NOT NULL
+);
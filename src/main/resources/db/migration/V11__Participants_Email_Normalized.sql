@@ -0,0 +1,61 @@
+-- Email хранится в исходном виде, поиск и уникальность - по email в нижнем регистре
+ALTER TABLE participants ADD COLUMN email_normalized VARCHAR(255);
+
+UPDATE participants SET email_normalized = lower(trim(email));
+
+ALTER TABLE participants ALTER COLUMN email_normalized SET NOT NULL;
+
+-- Участники, email которых совпадает без учёта регистра и пробелов, объединяются в участника
+-- с наименьшим id: ему переходят регистрации и места в листах ожидания, остальные мягко удаляются.
+-- Объединённые участники перечислены в participants_email_merges для ручного разбора.
+CREATE TABLE participants_email_merges (
+    participant_id BIGINT PRIMARY KEY,
+    merged_into_id BIGINT NOT NULL,
+    resolved_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+INSERT INTO participants_email_merges (participant_id, merged_into_id)
+SELECT id, keeper_id
+FROM (SELECT id, min(id) OVER (PARTITION BY email_normalized) AS keeper_id
+      FROM participants WHERE deleted = false) p
+WHERE id <> keeper_id;
+
+INSERT INTO event_participants (event_id, participant_id)
+SELECT ep.event_id, d.merged_into_id
+FROM event_participants ep JOIN participants_email_merges d ON d.participant_id = ep.participant_id
+ON CONFLICT DO NOTHING;
+
+DELETE FROM event_participants WHERE participant_id IN (SELECT participant_id FROM participants_email_merges);
+
+UPDATE events e
+SET registered_count = (SELECT COUNT(*) FROM event_participants ep WHERE ep.event_id = e.id)
+WHERE e.id IN (SELECT ep.event_id FROM event_participants ep
+               WHERE ep.participant_id IN (SELECT merged_into_id FROM participants_email_merges));
+
+-- в листе ожидания остаётся самое раннее место объединённого участника, если он ещё не зарегистрирован
+CREATE TEMPORARY TABLE waitlist_keepers AS
+SELECT w.id, w.event_id, coalesce(d.merged_into_id, w.participant_id) AS keeper_id, w.position
+FROM event_waitlist w LEFT JOIN participants_email_merges d ON d.participant_id = w.participant_id
+WHERE coalesce(d.merged_into_id, w.participant_id) IN (SELECT merged_into_id FROM participants_email_merges);
+
+DELETE FROM event_waitlist w
+USING waitlist_keepers k
+WHERE w.id = k.id
+  AND (EXISTS (SELECT 1 FROM waitlist_keepers o
+               WHERE o.event_id = k.event_id AND o.keeper_id = k.keeper_id AND o.position < k.position)
+       OR EXISTS (SELECT 1 FROM event_participants ep
+                  WHERE ep.event_id = k.event_id AND ep.participant_id = k.keeper_id));
+
+UPDATE event_waitlist w
+SET participant_id = d.merged_into_id
+FROM participants_email_merges d
+WHERE w.participant_id = d.participant_id;
+
+UPDATE participants SET deleted = true WHERE id IN (SELECT participant_id FROM participants_email_merges);
+
+DROP TABLE waitlist_keepers;
+
+-- Уникальность только среди неудалённых участников: email удалённого участника можно зарегистрировать снова
+ALTER TABLE participants DROP CONSTRAINT participants_email_key;
+
+CREATE UNIQUE INDEX idx_participants_email_normalized ON participants (email_normalized) WHERE deleted = false;
@@ -0,0 +1,3 @@
+-- Последний завершённый запуск задачи (например, день сводок), записывается держателем аренды
+-- в одной транзакции с результатами запуска
+ALTER TABLE scheduler_leases ADD COLUMN completed_run VARCHAR(100);
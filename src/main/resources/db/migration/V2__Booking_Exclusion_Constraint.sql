@@ -0,0 +1,31 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Пересекающиеся бронирования, созданные до появления ограничения, миграция не исправляет:
+-- отмена мероприятия затрагивает записанных участников, поэтому решение принимает оператор.
+-- При найденных пересечениях миграция прерывается со списком пар мероприятий; после их
+-- разбора (перенос или удаление одного из мероприятий) миграцию нужно запустить снова.
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    SELECT string_agg(format('%s/%s', o.id, e.id), ', ' ORDER BY o.id, e.id)
+    INTO conflicts
+    FROM events e
+    JOIN events o ON o.room_id = e.room_id
+        AND o.id < e.id
+        AND o.deleted = false
+        AND tsrange(o.start_time, o.end_time, '[]') && tsrange(e.start_time, e.end_time, '[]')
+    WHERE e.deleted = false;
+
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Пересекающиеся бронирования помещений (id мероприятий): %', conflicts
+            USING HINT = 'Перенесите или удалите одно из мероприятий каждой пары и повторите миграцию';
+    END IF;
+END
+$$;
+
+-- Границы включены: мероприятия, касающиеся друг друга по времени, считаются пересекающимися
+ALTER TABLE events
+    ADD CONSTRAINT events_room_booking_excl
+    EXCLUDE USING gist (room_id WITH =, tsrange(start_time, end_time, '[]') WITH &&)
+    WHERE (deleted = false);
@@ -0,0 +1 @@
+CREATE INDEX idx_events_start_time_id ON events (start_time, id) WHERE deleted = false;
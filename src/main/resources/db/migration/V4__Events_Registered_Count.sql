@@ -0,0 +1,4 @@
+ALTER TABLE events ADD COLUMN registered_count INT NOT NULL DEFAULT 0;
+
+UPDATE events e
+SET registered_count = (SELECT COUNT(*) FROM event_participants ep WHERE ep.event_id = e.id);
@@ -0,0 +1 @@
+ALTER TABLE events ADD COLUMN flash_sale BOOLEAN NOT NULL DEFAULT FALSE;
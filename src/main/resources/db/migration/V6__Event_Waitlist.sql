@@ -0,0 +1,12 @@
+CREATE SEQUENCE event_waitlist_position_seq;
+
+CREATE TABLE event_waitlist (
+    id BIGSERIAL PRIMARY KEY,
+    event_id BIGINT NOT NULL REFERENCES events(id) ON DELETE CASCADE,
+    participant_id BIGINT NOT NULL REFERENCES participants(id) ON DELETE CASCADE,
+    position BIGINT NOT NULL DEFAULT nextval('event_waitlist_position_seq'),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (event_id, participant_id)
+);
+
+CREATE UNIQUE INDEX idx_event_waitlist_event_position ON event_waitlist (event_id, position);
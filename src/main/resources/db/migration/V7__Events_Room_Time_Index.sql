@@ -0,0 +1 @@
+CREATE INDEX idx_events_room_time ON events (room_id, start_time, end_time) WHERE deleted = false;
@@ -0,0 +1,5 @@
+-- Сводки напоминаний относятся к участнику, а не к одному мероприятию
+ALTER TABLE email_outbox ALTER COLUMN event_id DROP NOT NULL;
+
+CREATE UNIQUE INDEX idx_email_outbox_participant_digest ON email_outbox (participant_id, email_type)
+    WHERE event_id IS NULL;
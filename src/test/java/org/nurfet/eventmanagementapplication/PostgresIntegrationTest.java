@@ -0,0 +1,53 @@
+package org.nurfet.eventmanagementapplication;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Общий контейнер PostgreSQL для интеграционных тестов. Контейнер запускается один раз
+ * на весь прогон и останавливается вместе с JVM; каждый контекст Spring получает в нём
+ * свою пустую базу, поэтому данные тестовых классов не смешиваются.
+ */
+public abstract class PostgresIntegrationTest {
+
+    public static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16.4-alpine");
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    static {
+        POSTGRES.start();
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        String url = createDatabase();
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    /**
+     * Создаёт пустую базу в общем контейнере.
+     *
+     * @return JDBC URL новой базы
+     */
+    public static String createDatabase() {
+        String database = "test_" + DATABASES.incrementAndGet();
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + database);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось создать тестовую базу " + database, e);
+        }
+        return "jdbc:postgresql://" + POSTGRES.getHost() + ":"
+                + POSTGRES.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + database;
+    }
+}
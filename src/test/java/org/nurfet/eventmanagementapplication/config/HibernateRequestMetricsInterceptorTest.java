@@ -0,0 +1,50 @@
+package org.nurfet.eventmanagementapplication.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class HibernateRequestMetricsInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final HibernateRequestMetricsInterceptor interceptor = new HibernateRequestMetricsInterceptor(meterRegistry);
+
+    private final SqlStatementBudget budget = new SqlStatementBudget();
+
+    private final SqlStatementBudgetInterceptor budgetInterceptor = new SqlStatementBudgetInterceptor(budget);
+
+    @Test
+    void asyncRequest_ShouldReleaseCountersWhenConcurrentHandlingStarts() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events/stream");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/events/stream");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+        budgetInterceptor.preHandle(request, response, null);
+        budget.record("select * from events");
+        budgetInterceptor.afterConcurrentHandlingStarted(request, response, null);
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+
+        // поток запроса возвращается в пул контейнера без счётчиков
+        assertNull(HibernateRequestStatistics.stop());
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, null);
+        budgetInterceptor.preHandle(request, response, null);
+        budgetInterceptor.afterCompletion(request, response, null, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertNull(HibernateRequestStatistics.stop());
+        assertEquals(1, meterRegistry.get("hibernate.request.statements")
+                .tag("uri", "/api/events/stream").summary().count());
+        assertEquals(1.0, meterRegistry.get("hibernate.request.statements")
+                .tag("uri", "/api/events/stream").summary().max());
+    }
+}
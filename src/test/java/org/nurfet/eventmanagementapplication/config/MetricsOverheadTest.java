@@ -0,0 +1,115 @@
+package org.nurfet.eventmanagementapplication.config;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Оценивает затраты на метрики одного HTTP-запроса: подсчёт SQL-запросов, счётчики Hibernate
+ * запроса, их запись в распределения и таймеры {@code @Timed} на нескольких вызовах сервисов.
+ */
+public class MetricsOverheadTest {
+
+    private static final Duration PER_REQUEST_BUDGET = Duration.ofNanos(50_000);
+
+    private static final int SERVICE_CALLS_PER_REQUEST = 3;
+
+    private static final int STATEMENTS_PER_REQUEST = 5;
+
+    private static final int ITERATIONS = 200_000;
+
+    private static final int ROUNDS = 5;
+
+    /**
+     * Результат прогонов, чтобы JIT не выбросил измеряемый код.
+     */
+    private static volatile int blackhole;
+
+    private final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+    @Test
+    void requestInstrumentation_ShouldStayWithinBudget() {
+        TimedTarget plain = new TimedTarget();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new TimedTarget());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new TimedAspect(meterRegistry));
+        TimedTarget timed = factory.getProxy();
+
+        HibernateRequestMetricsInterceptor interceptor = new HibernateRequestMetricsInterceptor(meterRegistry);
+        SqlStatementBudget budget = new SqlStatementBudget();
+        SqlStatementBudgetInterceptor budgetInterceptor = new SqlStatementBudgetInterceptor(budget);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/events/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        IntUnaryOperator bare = i -> {
+            int result = i;
+            for (int call = 0; call < SERVICE_CALLS_PER_REQUEST; call++) {
+                result += plain.work(result);
+            }
+            return result;
+        };
+        IntUnaryOperator instrumented = i -> {
+            interceptor.preHandle(request, response, null);
+            budgetInterceptor.preHandle(request, response, null);
+            int result = i;
+            for (int call = 0; call < SERVICE_CALLS_PER_REQUEST; call++) {
+                result += timed.work(result);
+            }
+            for (int statement = 0; statement < STATEMENTS_PER_REQUEST; statement++) {
+                budget.record("select * from events where id = ?");
+            }
+            budgetInterceptor.afterCompletion(request, response, null, null);
+            interceptor.afterCompletion(request, response, null, null);
+            return result;
+        };
+
+        measure(bare);
+        measure(instrumented);
+        long overhead = measure(instrumented) - measure(bare);
+
+        assertEquals((long) 2 * ITERATIONS * ROUNDS * SERVICE_CALLS_PER_REQUEST,
+                meterRegistry.get("app.service").timer().count());
+        assertEquals((double) STATEMENTS_PER_REQUEST,
+                meterRegistry.get("hibernate.request.statements").tag("uri", "/api/events/{id}").summary().max());
+        assertTrue(overhead < PER_REQUEST_BUDGET.toNanos(),
+                "Метрики добавляют " + overhead + " нс на запрос при бюджете " + PER_REQUEST_BUDGET.toNanos() + " нс");
+    }
+
+    /**
+     * @return наименьшее среднее время одного запроса в наносекундах среди {@link #ROUNDS} прогонов
+     */
+    private static long measure(IntUnaryOperator request) {
+        long best = Long.MAX_VALUE;
+        int sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += request.applyAsInt(i);
+            }
+            best = Math.min(best, (System.nanoTime() - started) / ITERATIONS);
+        }
+        blackhole = sink;
+        return best;
+    }
+
+    @Timed("app.service")
+    public static class TimedTarget {
+
+        public int work(int value) {
+            return Integer.rotateLeft(value, 3) ^ 0x5bd1e995;
+        }
+    }
+}
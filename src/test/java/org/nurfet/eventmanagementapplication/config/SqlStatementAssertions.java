@@ -0,0 +1,35 @@
+package org.nurfet.eventmanagementapplication.config;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка числа SQL-запросов эндпоинта по подсчёту {@link SqlStatementBudget}.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    /**
+     * Выполняет запрос и проверяет, что он выполнил не больше {@code maxStatements} SQL-запросов.
+     * При превышении в сообщении перечисляются виды выполненных запросов.
+     */
+    public static MvcResult performWithinBudget(MockMvc mockMvc, int maxStatements, RequestBuilder request)
+            throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        String endpoint = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+
+        SqlStatementBudget.StatementLog statements = (SqlStatementBudget.StatementLog)
+                result.getRequest().getAttribute(SqlStatementBudget.REQUEST_ATTRIBUTE);
+        assertNotNull(statements, "SQL-запросы не подсчитаны для " + endpoint);
+        assertTrue(statements.count() <= maxStatements, () -> String.format(
+                "%s: выполнено SQL-запросов %d, допустимо %d%n%s",
+                endpoint, statements.count(), maxStatements, statements.describe(10)));
+        return result;
+    }
+}
@@ -0,0 +1,35 @@
+package org.nurfet.eventmanagementapplication.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SqlStatementBudgetTest {
+
+    @Test
+    void shape_ShouldReplaceLiteralsAndParameterLists() {
+        assertEquals("select * from events e1_0 where e1_0.id in (?, ...) and e1_0.name = ? limit ?",
+                SqlStatementBudget.shape("select *\n  from events e1_0 where e1_0.id in (?, ?, ?)" +
+                        " and e1_0.name = 'it''s' limit 10"));
+    }
+
+    @Test
+    void shapes_RepeatedStatement_ShouldBeReportedFirst() {
+        SqlStatementBudget.StatementLog statements = new SqlStatementBudget.StatementLog();
+        statements.add("select * from events");
+        for (int id = 1; id <= 5; id++) {
+            statements.add("select * from rooms where id = " + id);
+        }
+        statements.add(null);
+
+        Map<String, Integer> shapes = statements.shapes();
+
+        assertEquals(7, statements.count());
+        assertEquals(List.of("select * from rooms where id = ?", "<пакет>", "select * from events"),
+                List.copyOf(shapes.keySet()));
+        assertEquals(5, shapes.get("select * from rooms where id = ?"));
+    }
+}
@@ -0,0 +1,247 @@
+package org.nurfet.eventmanagementapplication.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.PostgresIntegrationTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.nurfet.eventmanagementapplication.config.SqlStatementAssertions.performWithinBudget;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Число SQL-запросов каждого эндпоинта. Бюджет эндпоинта - запросы, которые он выполняет
+ * при холодных кэшах: мероприятия и помещения тестов добавляются через JDBC, поэтому их нет
+ * ни в кэшах приложения, ни в кэше второго уровня, ни в индексе бронирований. У мероприятий
+ * по несколько участников, а помещений несколько, поэтому N+1 при обращении к помещению
+ * или участникам выходит за бюджет.
+ * <p>
+ * Потоковая выгрузка {@code /api/events/stream} не проверяется: запросы к базе выполняются
+ * после начала асинхронной обработки.
+ */
+@SpringBootTest(properties = "scheduling.enabled=false")
+@AutoConfigureMockMvc
+public class EndpointStatementBudgetTest extends PostgresIntegrationTest {
+
+    private static final int EVENTS = 5;
+
+    private static final int PARTICIPANTS_PER_EVENT = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(2).withHour(8).withMinute(0).withSecond(0).withNano(0);
+
+    private String runId;
+
+    private Long roomId;
+
+    private Long otherRoomId;
+
+    private final List<Long> eventIds = new ArrayList<>();
+
+    private final List<Long> participantIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        runId = Long.toString(System.nanoTime(), 36);
+        eventIds.clear();
+        participantIds.clear();
+        roomId = insertRoom("Зал " + runId);
+        otherRoomId = insertRoom("Малый зал " + runId);
+
+        for (int i = 0; i < EVENTS; i++) {
+            LocalDateTime eventStart = start.plusDays(i);
+            Long eventId = jdbcTemplate.queryForObject("INSERT INTO events (name, start_time, end_time, room_id, " +
+                            "registered_count) VALUES (?, ?, ?, ?, ?) RETURNING id", Long.class,
+                    "Мероприятие " + runId + "-" + i, Timestamp.valueOf(eventStart),
+                    Timestamp.valueOf(eventStart.plusHours(1)), i % 2 == 0 ? roomId : otherRoomId,
+                    PARTICIPANTS_PER_EVENT);
+            eventIds.add(eventId);
+            for (int p = 0; p < PARTICIPANTS_PER_EVENT; p++) {
+                Long participantId = insertParticipant("p" + i + "_" + p);
+                participantIds.add(participantId);
+                jdbcTemplate.update("INSERT INTO event_participants (event_id, participant_id) VALUES (?, ?)",
+                        eventId, participantId);
+            }
+        }
+    }
+
+    @Test
+    void eventReadEndpoints_ShouldStayWithinBudget() throws Exception {
+        Long eventId = eventIds.get(0);
+
+        assertOk(1, get("/api/events"));
+        assertOk(1, get("/api/events/between")
+                .param("start", start.toString())
+                .param("end", start.plusDays(EVENTS).toString()));
+        assertOk(1, get("/api/events/page").param("size", "2"));
+        assertOk(1, get("/api/events/" + eventId));
+        assertOk(1, get("/api/events/" + eventId + "/participants"));
+    }
+
+    @Test
+    void eventWriteEndpoints_ShouldStayWithinBudget() throws Exception {
+        Long eventId = eventIds.get(0);
+        LocalDateTime freeStart = start.plusDays(30);
+
+        // помещение, бронирования помещения для индекса, вставка мероприятия
+        assertOk(3, post("/api/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(eventJson("Новое " + runId, freeStart, roomId)));
+        // помещения пачки, бронирования двух помещений, идентификаторы, пакет вставок
+        assertOk(5, post("/api/events/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + eventJson("Пачка 1 " + runId, freeStart.plusDays(1), roomId) + "," +
+                        eventJson("Пачка 2 " + runId, freeStart.plusDays(2), roomId) + "," +
+                        eventJson("Пачка 3 " + runId, freeStart.plusDays(3), otherRoomId) + "]"));
+        // мероприятие с помещением, помещение, бронирования помещения, обновление, уведомление кэша
+        assertOk(6, put("/api/events/" + eventId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(eventJson("Обновлённое " + runId, start.plusHours(2), roomId)));
+
+        // мероприятие с помещением, поиск по email при ложном срабатывании фильтра, вставка участника,
+        // регистрация, уведомление кэша, счётчик мест
+        assertOk(7, post("/api/events/" + eventId + "/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(registrationJson("new")));
+        // мероприятие с помещением, 11 запросов массовой регистрации, счётчик мест, уведомление кэша
+        assertOk(15, post("/api/events/" + eventId + "/register/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + registrationJson("bulk1") + "," + registrationJson("bulk2") + "," +
+                        registrationJson("bulk3") + "]"));
+        assertOk(15, post("/api/events/" + eventId + "/register/bulk")
+                .contentType("text/csv")
+                .content("firstName,lastName,email,phone\n" + registrationCsv("csv1") + registrationCsv("csv2")));
+        // мероприятие с помещением, отмена регистрации, счётчик мест, уведомление кэша,
+        // блокировка мероприятия и голова листа ожидания
+        assertOk(7, delete("/api/events/" + eventId + "/participants/" + participantIds.get(0)));
+
+        // мероприятие с помещением, обновление, уведомление кэша
+        assertOk(4, delete("/api/events/" + eventIds.get(1)));
+    }
+
+    @Test
+    void flashSaleEndpoints_ShouldStayWithinBudget() throws Exception {
+        Long eventId = eventIds.get(2);
+        String reservations = "/api/events/" + eventId + "/reservations";
+
+        // обновление мероприятия, уведомление кэша
+        assertOk(2, put("/api/events/" + eventId + "/flash-sale"));
+        // загрузка пула мест; следующие бронирования в базу не обращаются
+        MvcResult reserved = assertStatus(1, 200, post(reservations));
+        assertStatus(0, 200, post(reservations));
+        String token = objectMapper.readTree(reserved.getResponse().getContentAsString()).get("token").asText();
+
+        // подтверждения записываются в базу пачками в отдельном потоке
+        assertStatus(0, 202, post(reservations + "/" + token + "/confirm")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(registrationJson("flash")));
+        assertOk(0, get(reservations + "/" + token));
+
+        assertOk(2, delete("/api/events/" + eventId + "/flash-sale"));
+    }
+
+    @Test
+    void roomEndpoints_ShouldStayWithinBudget() throws Exception {
+        // индекс бронирований загружает бронирования помещения из базы при первом обращении
+        mockMvc.perform(get("/api/rooms/free-slots").param("duration", "PT1H"));
+
+        assertOk(1, get("/api/rooms"));
+        assertOk(1, get("/api/rooms/" + roomId));
+        assertOk(1, get("/api/rooms/available")
+                .param("startTime", start.minusDays(1).toString())
+                .param("endTime", start.minusDays(1).plusHours(1).toString()));
+        assertOk(1, get("/api/rooms/free-slots").param("duration", "PT1H"));
+
+        // вставка помещения, уведомление кэша
+        assertOk(2, post("/api/rooms")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Новый зал " + runId + "\", \"capacity\": 20}"));
+        // помещение, обновление, уведомление кэша, мероприятия помещения с листом ожидания
+        assertOk(4, put("/api/rooms/" + roomId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Большой зал " + runId + "\", \"capacity\": 100}"));
+
+        Long emptyRoomId = insertRoom("Пустой зал " + runId);
+        // помещение, активные мероприятия, удаление, уведомление кэша
+        assertOk(4, delete("/api/rooms/" + emptyRoomId));
+    }
+
+    @Test
+    void participantEndpoints_ShouldStayWithinBudget() throws Exception {
+        Long participantId = participantIds.get(0);
+
+        assertOk(1, get("/api/participants/" + participantId));
+        // участник, проверка нового email, обновление, уведомление кэша
+        assertOk(4, put("/api/participants/" + participantId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(registrationJson("renamed")));
+
+        Long unregisteredId = insertParticipant("free");
+        // участник, активные мероприятия, лист ожидания, удаление, уведомление кэша
+        assertOk(5, delete("/api/participants/" + unregisteredId));
+    }
+
+    @Test
+    void cacheStatsEndpoint_ShouldNotQueryDatabase() throws Exception {
+        assertOk(0, get("/api/cache/stats"));
+    }
+
+    private void assertOk(int maxStatements, RequestBuilder request) throws Exception {
+        assertStatus(maxStatements, 200, request);
+    }
+
+    private MvcResult assertStatus(int maxStatements, int status, RequestBuilder request) throws Exception {
+        MvcResult result = performWithinBudget(mockMvc, maxStatements, request);
+        assertEquals(status, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        return result;
+    }
+
+    private Long insertRoom(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO rooms (name, capacity) VALUES (?, 50) RETURNING id",
+                Long.class, name);
+    }
+
+    private Long insertParticipant(String user) {
+        String email = user + "_" + runId + "@example.com";
+        return jdbcTemplate.queryForObject("INSERT INTO participants (first_name, last_name, email, email_normalized) " +
+                "VALUES ('Иван', 'Петров', ?, ?) RETURNING id", Long.class, email, email);
+    }
+
+    private static String eventJson(String name, LocalDateTime eventStart, Long roomId) {
+        return String.format("{\"name\": \"%s\", \"startTime\": \"%s\", \"endTime\": \"%s\", \"roomId\": %d}",
+                name, eventStart, eventStart.plusHours(1), roomId);
+    }
+
+    private String registrationCsv(String user) {
+        return String.format("Анна,Смирнова,%s_%s@example.com,+7(999)999-99-99%n", user, runId);
+    }
+
+    private String registrationJson(String user) {
+        return String.format("{\"firstName\": \"Анна\", \"lastName\": \"Смирнова\", " +
+                "\"email\": \"%s_%s@example.com\", \"phone\": \"+7(999)999-99-99\"}", user, runId);
+    }
+}
@@ -2,10 +2,9 @@ package org.nurfet.eventmanagementapplication.controller;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.junit.jupiter.api.AfterAll;
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.PostgresIntegrationTest;
 import org.nurfet.eventmanagementapplication.dto.EventDTO;
 import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
 import org.nurfet.eventmanagementapplication.dto.ParticipantDTO;
@@ -16,25 +15,29 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.MediaType;
-import org.springframework.test.context.DynamicPropertyRegistry;
-import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
-import org.testcontainers.containers.PostgreSQLContainer;
+import org.springframework.test.web.servlet.MvcResult;
 import io.restassured.RestAssured;
 
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
-public class EventControllerIntegrationTest {
+public class EventControllerIntegrationTest extends PostgresIntegrationTest {
 
     @LocalServerPort
     private Integer port;
@@ -45,30 +48,12 @@ public class EventControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
-    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
-            "postgres:latest"
-    );
-
-    @BeforeAll
-    static void beforeAll() {
-        postgres.start();
-    }
-
-    @AfterAll
-    static void afterAll() {
-        postgres.stop();
-    }
-
-    @DynamicPropertySource
-    static void configureProperties(DynamicPropertyRegistry registry) {
-        registry.add("spring.datasource.url", postgres::getJdbcUrl);
-        registry.add("spring.datasource.username", postgres::getUsername);
-        registry.add("spring.datasource.password", postgres::getPassword);
-    }
-
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         RestAssured.baseURI = "http://localhost:" + port;
@@ -157,6 +142,88 @@ public class EventControllerIntegrationTest {
         assertEquals(registrationDTO.getPhone(), participant.getPhone());
     }
 
+    @Test
+    void registerParticipant_WhenEventIsFull_ShouldWaitlistAndPromoteOnCancellation() throws Exception {
+        RoomDTO createdRoom = createRoom("Переговорная", 1);
+
+        EventDTO createdEvent = createEvent(
+                "Конференция по Spring",
+                LocalDateTime.now().plusDays(2).withHour(10).withMinute(0),
+                LocalDateTime.now().plusDays(2).withHour(12).withMinute(0),
+                createdRoom.getId()
+        );
+
+        EventRegistrationDTO first = new EventRegistrationDTO("Иван", "Петров", "ivan@example.com", "+7(999)999-99-99");
+        EventRegistrationDTO second = new EventRegistrationDTO("Мария", "Иванова", "maria@example.com", "+7(999)999-99-98");
+
+        String firstResponse = mockMvc.perform(post("/api/events/" + createdEvent.getId() + "/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("REGISTERED"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        mockMvc.perform(post("/api/events/" + createdEvent.getId() + "/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(second)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("WAITLISTED"))
+                .andExpect(jsonPath("$.waitlistPosition").value(1));
+
+        Long firstId = objectMapper.readTree(firstResponse).get("participant").get("id").asLong();
+
+        mockMvc.perform(delete("/api/events/" + createdEvent.getId() + "/participants/" + firstId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/events/" + createdEvent.getId() + "/participants"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].email").value(second.getEmail()));
+
+        mockMvc.perform(get("/api/events/" + createdEvent.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registeredCount").value(1));
+    }
+
+    @Test
+    void updateRoom_WhenCapacityIncreases_ShouldPromoteWaitlist() throws Exception {
+        RoomDTO createdRoom = createRoom("Малая переговорная", 1);
+
+        EventDTO createdEvent = createEvent(
+                "Конференция по Spring",
+                LocalDateTime.now().plusDays(3).withHour(10).withMinute(0),
+                LocalDateTime.now().plusDays(3).withHour(12).withMinute(0),
+                createdRoom.getId()
+        );
+
+        EventRegistrationDTO first = new EventRegistrationDTO("Олег", "Смирнов", "oleg@example.com", "+7(999)999-99-97");
+        EventRegistrationDTO second = new EventRegistrationDTO("Анна", "Кузнецова", "anna@example.com", "+7(999)999-99-96");
+
+        mockMvc.perform(post("/api/events/" + createdEvent.getId() + "/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(first)))
+                .andExpect(jsonPath("$.status").value("REGISTERED"));
+        mockMvc.perform(post("/api/events/" + createdEvent.getId() + "/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(second)))
+                .andExpect(jsonPath("$.status").value("WAITLISTED"));
+
+        createdRoom.setCapacity(2);
+        mockMvc.perform(put("/api/rooms/" + createdRoom.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createdRoom)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/events/" + createdEvent.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registeredCount").value(2));
+        mockMvc.perform(get("/api/events/" + createdEvent.getId() + "/participants"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
     @Test
     void getEventsBetweenDates_WithValidDates_ShouldReturnEvents() throws Exception {
 
@@ -201,4 +268,113 @@ public class EventControllerIntegrationTest {
                         String.format("Помещение с идентификатором %d было успешно удалено", createdRoom.getId())
                 ));
     }
+
+    @Test
+    void createEvent_WhenDatabaseRejectsOverlappingBooking_ShouldReturnConflict() throws Exception {
+        RoomDTO createdRoom = createRoom("Конференц-зал Б", 50);
+        LocalDateTime day = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+        // индекс бронирований загружает помещение при первом создании мероприятия
+        createEvent("Утреннее мероприятие", day.withHour(9), day.withHour(10), createdRoom.getId());
+
+        // бронирование, о котором индекс не знает: пересечение обнаружит только ограничение
+        // events_room_booking_excl (SQLSTATE 23P01)
+        jdbcTemplate.update("INSERT INTO events (name, start_time, end_time, room_id) VALUES (?, ?, ?, ?)",
+                "Мероприятие другого узла", Timestamp.valueOf(day.withHour(14)), Timestamp.valueOf(day.withHour(16)),
+                createdRoom.getId());
+
+        EventDTO overlapping = new EventDTO();
+        overlapping.setName("Пересекающееся мероприятие");
+        overlapping.setStartTime(day.withHour(15));
+        overlapping.setEndTime(day.withHour(17));
+        overlapping.setRoomId(createdRoom.getId());
+
+        mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(overlapping)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Помещение уже забронировано на это время"));
+    }
+
+    @Test
+    void getEventsPage_ShouldContinueFromCursorAcrossEqualStartTimes() throws Exception {
+        List<Long> expected = createEventsForPaging();
+        List<Long> actual = new ArrayList<>();
+
+        String cursor = null;
+        int pages = 0;
+        do {
+            var pageRequest = get("/api/events/page").param("size", "2");
+            if (cursor != null) {
+                pageRequest.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(pageRequest)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString());
+
+            page.get("items").forEach(item -> actual.add(item.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, actual);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void getEventsPage_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/events/page").param("cursor", "не-курсор"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamEvents_ShouldWriteAllEventsInOrderAndComplete() throws Exception {
+        List<Long> expected = createEventsForPaging();
+
+        MvcResult started = mockMvc.perform(get("/api/events/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<Long> actual = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                actual.add(objectMapper.readTree(line).get("id").asLong());
+            }
+        }
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Пять мероприятий: одно до 1970 года (добавлено напрямую в БД, через API прошедшие даты
+     * не принимаются), три с одинаковым временем начала в разных помещениях и одно позже.
+     * Граница первой страницы размером 2 приходится на мероприятия с одинаковым временем начала.
+     *
+     * @return id мероприятий в порядке (startTime, id)
+     */
+    private List<Long> createEventsForPaging() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(5).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        List<Long> ids = new ArrayList<>();
+
+        RoomDTO archiveRoom = createRoom("Архивный зал", 10);
+        ids.add(jdbcTemplate.queryForObject("INSERT INTO events (name, start_time, end_time, room_id) " +
+                        "VALUES (?, ?, ?, ?) RETURNING id", Long.class, "Мероприятие 1965 года",
+                Timestamp.valueOf(LocalDateTime.of(1965, 5, 1, 10, 0)),
+                Timestamp.valueOf(LocalDateTime.of(1965, 5, 1, 12, 0)), archiveRoom.getId()));
+
+        for (int i = 0; i < 3; i++) {
+            RoomDTO room = createRoom("Зал " + i, 10);
+            ids.add(createEvent("Параллельная секция " + i, start, start.plusHours(1), room.getId()).getId());
+        }
+
+        ids.add(createEvent("Закрытие", start.plusDays(1), start.plusDays(1).plusHours(1), archiveRoom.getId()).getId());
+        return ids;
+    }
 }
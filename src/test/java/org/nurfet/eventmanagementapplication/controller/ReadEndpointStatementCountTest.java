@@ -0,0 +1,123 @@
+package org.nurfet.eventmanagementapplication.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.model.Event;
+import org.nurfet.eventmanagementapplication.model.Participant;
+import org.nurfet.eventmanagementapplication.model.Room;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+import org.nurfet.eventmanagementapplication.repository.ParticipantRepository;
+import org.nurfet.eventmanagementapplication.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет, что эндпоинты чтения выполняют один SQL-запрос независимо от количества
+ * мероприятий (нет N+1 при обращении к помещению или участникам).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReadEndpointStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ParticipantRepository participantRepository;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+
+    private Event firstEvent;
+
+    private Room firstRoom;
+
+    private Participant participant;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository.deleteAll();
+        participantRepository.deleteAll();
+        roomRepository.deleteAll();
+
+        participant = new Participant();
+        participant.setFirstName("Иван");
+        participant.setLastName("Петров");
+        participant.setEmail("ivan@example.com");
+        participant.setPhone("+7(999)999-99-99");
+        participant = participantRepository.save(participant);
+
+        for (int i = 0; i < 5; i++) {
+            Room room = new Room();
+            room.setName("Зал " + i);
+            room.setCapacity(50);
+            room = roomRepository.save(room);
+
+            Event event = new Event();
+            event.setName("Мероприятие " + i);
+            event.setStartTime(start.plusHours(i));
+            event.setEndTime(start.plusHours(i).plusMinutes(30));
+            event.setRoom(room);
+            event.getParticipants().add(participant);
+            event = eventRepository.save(event);
+
+            if (i == 0) {
+                firstEvent = event;
+                firstRoom = room;
+            }
+        }
+    }
+
+    @Test
+    void eventReadEndpoints_ShouldIssueSingleStatement() throws Exception {
+        assertStatements(1, get("/api/events"));
+        assertStatements(1, get("/api/events/between")
+                .param("start", start.toString())
+                .param("end", start.plusDays(1).toString()));
+        assertStatements(1, get("/api/events/page").param("size", "2"));
+        assertStatements(1, get("/api/events/" + firstEvent.getId()));
+        assertStatements(1, get("/api/events/" + firstEvent.getId() + "/participants"));
+    }
+
+    @Test
+    void roomAndParticipantReadEndpoints_ShouldIssueSingleStatement() throws Exception {
+        assertStatements(1, get("/api/rooms"));
+        assertStatements(1, get("/api/rooms/" + firstRoom.getId()));
+        assertStatements(1, get("/api/rooms/available")
+                .param("startTime", start.minusDays(1).toString())
+                .param("endTime", start.minusDays(1).plusHours(1).toString()));
+        assertStatements(1, get("/api/participants/" + participant.getId()));
+    }
+
+    private void assertStatements(long expected, RequestBuilder request) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        assertEquals(expected, statistics.getPrepareStatementCount(),
+                "Неожиданное количество SQL-запросов для " + request);
+    }
+}
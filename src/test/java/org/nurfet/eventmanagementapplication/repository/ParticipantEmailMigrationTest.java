@@ -0,0 +1,98 @@
+package org.nurfet.eventmanagementapplication.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.PostgresIntegrationTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.nurfet.eventmanagementapplication.PostgresIntegrationTest.POSTGRES;
+
+/**
+ * Миграция V11 на базе с участниками, email которых различается только регистром и пробелами:
+ * дубликаты объединяются до создания уникального индекса.
+ */
+public class ParticipantEmailMigrationTest {
+
+    @Test
+    void migrate_ShouldMergeParticipantsWithSameNormalizedEmail() {
+        DataSource dataSource = new DriverManagerDataSource(
+                PostgresIntegrationTest.createDatabase(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        migrate(dataSource, "10");
+
+        Long roomId = jdbcTemplate.queryForObject(
+                "INSERT INTO rooms (name, capacity) VALUES ('Зал', 10) RETURNING id", Long.class);
+        Long first = insertEvent(jdbcTemplate, roomId, 24);
+        Long second = insertEvent(jdbcTemplate, roomId, 26);
+        Long full = insertEvent(jdbcTemplate, roomId, 28);
+
+        Long keeper = insertParticipant(jdbcTemplate, "ivan@example.com");
+        Long upperCase = insertParticipant(jdbcTemplate, "Ivan@Example.com");
+        Long spaces = insertParticipant(jdbcTemplate, " IVAN@example.com ");
+        Long other = insertParticipant(jdbcTemplate, "petr@example.com");
+
+        // оба дубликата и основной участник записаны на first, дубликат - на second
+        register(jdbcTemplate, first, keeper);
+        register(jdbcTemplate, first, upperCase);
+        register(jdbcTemplate, first, spaces);
+        register(jdbcTemplate, first, other);
+        register(jdbcTemplate, second, upperCase);
+        // в листе ожидания full раньше стоит дубликат
+        jdbcTemplate.update("INSERT INTO event_waitlist (event_id, participant_id, position) VALUES (?, ?, 1), (?, ?, 2)",
+                full, spaces, full, keeper);
+        jdbcTemplate.update("UPDATE events e SET registered_count = " +
+                "(SELECT COUNT(*) FROM event_participants ep WHERE ep.event_id = e.id)");
+
+        migrate(dataSource, "latest");
+
+        assertEquals(List.of(keeper, other), jdbcTemplate.queryForList(
+                "SELECT id FROM participants WHERE deleted = false ORDER BY id", Long.class));
+        assertEquals(List.of(keeper, other), participants(jdbcTemplate, first));
+        assertEquals(List.of(keeper), participants(jdbcTemplate, second));
+        assertEquals(2, registeredCount(jdbcTemplate, first));
+        assertEquals(1, registeredCount(jdbcTemplate, second));
+        assertEquals(List.of(1L), jdbcTemplate.queryForList(
+                "SELECT position FROM event_waitlist WHERE event_id = ? AND participant_id = ?", Long.class, full, keeper));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM event_waitlist WHERE event_id = ?", Integer.class, full));
+    }
+
+    private static void migrate(DataSource dataSource, String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private static Long insertEvent(JdbcTemplate jdbcTemplate, Long roomId, int hoursAhead) {
+        return jdbcTemplate.queryForObject("INSERT INTO events (name, start_time, end_time, room_id) " +
+                        "VALUES ('Лекция', LOCALTIMESTAMP + make_interval(hours => ?), " +
+                        "LOCALTIMESTAMP + make_interval(hours => ?), ?) RETURNING id",
+                Long.class, hoursAhead, hoursAhead + 1, roomId);
+    }
+
+    private static Long insertParticipant(JdbcTemplate jdbcTemplate, String email) {
+        return jdbcTemplate.queryForObject("INSERT INTO participants (first_name, last_name, email) " +
+                "VALUES ('Иван', 'Иванов', ?) RETURNING id", Long.class, email);
+    }
+
+    private static void register(JdbcTemplate jdbcTemplate, Long eventId, Long participantId) {
+        jdbcTemplate.update("INSERT INTO event_participants (event_id, participant_id) VALUES (?, ?)",
+                eventId, participantId);
+    }
+
+    private static List<Long> participants(JdbcTemplate jdbcTemplate, Long eventId) {
+        return jdbcTemplate.queryForList("SELECT participant_id FROM event_participants WHERE event_id = ? " +
+                "ORDER BY participant_id", Long.class, eventId);
+    }
+
+    private static int registeredCount(JdbcTemplate jdbcTemplate, Long eventId) {
+        return jdbcTemplate.queryForObject("SELECT registered_count FROM events WHERE id = ?", Integer.class, eventId);
+    }
+}
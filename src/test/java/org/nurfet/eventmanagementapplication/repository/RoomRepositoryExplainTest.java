@@ -0,0 +1,99 @@
+package org.nurfet.eventmanagementapplication.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.PostgresIntegrationTest;
+import org.nurfet.eventmanagementapplication.dto.RoomDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет, что поиск свободных помещений выполняется по индексу, а не полным
+ * просмотром таблицы мероприятий. План запроса получается командой EXPLAIN для
+ * SQL, который формирует Hibernate.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "org.nurfet.eventmanagementapplication.repository.RoomRepositoryExplainTest$AvailableRoomsSqlRecorder")
+public class RoomRepositoryExplainTest extends PostgresIntegrationTest {
+
+    private static final int ROOMS = 200;
+    private static final int DAYS = 100;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime base = LocalDate.now().plusDays(1).atStartOfDay();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE event_waitlist, event_participants, events, rooms RESTART IDENTITY CASCADE");
+
+        jdbcTemplate.update("INSERT INTO rooms (name, capacity) " +
+                "SELECT 'Зал ' || g, g FROM generate_series(1, ?) g", ROOMS);
+
+        // в каждом помещении по одному мероприятию в день, час начала зависит от помещения
+        jdbcTemplate.update("INSERT INTO events (name, start_time, end_time, room_id) " +
+                "SELECT 'Мероприятие', ?::timestamp + d * interval '1 day' + (r.id % 8) * interval '1 hour', " +
+                "?::timestamp + d * interval '1 day' + (r.id % 8) * interval '1 hour' + interval '1 hour', r.id " +
+                "FROM rooms r CROSS JOIN generate_series(0, ?) d", base, base, DAYS - 1);
+
+        jdbcTemplate.execute("ANALYZE rooms");
+        jdbcTemplate.execute("ANALYZE events");
+    }
+
+    @Test
+    void findAvailableRooms_ShouldUseIndexOnEvents() {
+        LocalDateTime startTime = base.plusDays(30).plusHours(2);
+        LocalDateTime endTime = startTime.plusMinutes(30);
+        int minCapacity = 50;
+
+        AvailableRoomsSqlRecorder.sql = null;
+        List<RoomDTO> rooms = roomRepository.findAvailableRooms(startTime, endTime, minCapacity);
+        String sql = AvailableRoomsSqlRecorder.sql;
+        assertNotNull(sql, "SQL поиска свободных помещений не перехвачен");
+
+        // в 02:00-02:30 заняты помещения с id % 8 == 2
+        long expected = IntStream.rangeClosed(minCapacity, ROOMS).filter(id -> id % 8 != 2).count();
+        assertEquals(expected, rooms.size());
+
+        // параметры в порядке появления в SQL: вместимость, окончание, начало
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class,
+                minCapacity, endTime, startTime));
+
+        assertTrue(plan.contains("idx_events_room_time") || plan.contains("idx_events_start_time_id"),
+                "Подзапрос по мероприятиям должен выполняться по индексу:\n" + plan);
+        assertFalse(plan.contains("Seq Scan on events"),
+                "Полный просмотр таблицы мероприятий:\n" + plan);
+    }
+
+    /**
+     * Запоминает последний SQL-запрос поиска свободных помещений.
+     */
+    public static class AvailableRoomsSqlRecorder implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String statement) {
+            if (statement.contains("not exists")) {
+                sql = statement;
+            }
+            return statement;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.nurfet.eventmanagementapplication.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.dto.EventDTO;
+import org.nurfet.eventmanagementapplication.model.Room;
+import org.nurfet.eventmanagementapplication.service.EventService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Кэш второго уровня и кэш запросов для помещений: повторное создание мероприятий в одном
+ * помещении не читает помещение из БД, а мягкое удаление сбрасывает закэшированное помещение.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "org.nurfet.eventmanagementapplication.repository.RoomSecondLevelCacheTest$RoomSelectCounter")
+@ActiveProfiles("test")
+public class RoomSecondLevelCacheTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository.deleteAll();
+        roomRepository.deleteAll();
+
+        room = new Room();
+        room.setName("Зал");
+        room.setCapacity(50);
+        room = roomRepository.save(room);
+    }
+
+    @Test
+    void createEvent_RepeatedInSameRoom_ShouldNotSelectRoom() {
+        eventService.createEvent(event(0));
+
+        RoomSelectCounter.count.set(0);
+        for (int i = 1; i <= 5; i++) {
+            eventService.createEvent(event(i));
+        }
+
+        assertEquals(0, RoomSelectCounter.count.get(), "Запросы к таблице rooms при создании мероприятий");
+    }
+
+    @Test
+    void softDelete_ShouldEvictCachedRoom() {
+        assertTrue(roomRepository.findByIdAndDeletedFalse(room.getId()).isPresent());
+
+        transactionTemplate.executeWithoutResult(status -> roomRepository.softDelete(room.getId()));
+
+        assertTrue(roomRepository.findByIdAndDeletedFalse(room.getId()).isEmpty());
+        assertTrue(roomRepository.findById(room.getId()).orElseThrow().isDeleted());
+    }
+
+    private EventDTO event(int index) {
+        EventDTO dto = new EventDTO();
+        dto.setName("Мероприятие " + index);
+        dto.setStartTime(start.plusHours(3L * index));
+        dto.setEndTime(start.plusHours(3L * index + 1));
+        dto.setRoomId(room.getId());
+        return dto;
+    }
+
+    /**
+     * Считает запросы SELECT к таблице помещений.
+     */
+    public static class RoomSelectCounter implements StatementInspector {
+
+        static final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public String inspect(String statement) {
+            if (statement.startsWith("select") && statement.contains(" from rooms ")) {
+                count.incrementAndGet();
+            }
+            return statement;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.PostgresIntegrationTest;
+import org.nurfet.eventmanagementapplication.dto.BulkRegistrationResultDTO;
+import org.nurfet.eventmanagementapplication.dto.RegistrationRowErrorDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Массовая регистрация на PostgreSQL: 100 тысяч строк CSV, читаемых потоком, с ошибками
+ * в отдельных строках, и ограничение по числу мест для JSON.
+ */
+@SpringBootTest(properties = "scheduling.enabled=false")
+public class BulkRegistrationServiceTest extends PostgresIntegrationTest {
+
+    private static final int ROWS = 100_000;
+
+    @Autowired
+    private BulkRegistrationService bulkRegistrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void registerCsv_HundredThousandRows_ShouldReportRowErrors() {
+        Long eventId = insertEvent(ROWS + 10);
+        // участник с тем же email, но другими данными
+        insertParticipant("Другой", "USER5@example.com");
+        // участник уже зарегистрирован на мероприятие
+        Long registered = insertParticipant("Имя7", "user7@example.com");
+        jdbcTemplate.update("INSERT INTO event_participants (event_id, participant_id) VALUES (?, ?)", eventId, registered);
+        jdbcTemplate.update("UPDATE events SET registered_count = 1 WHERE id = ?", eventId);
+
+        BulkRegistrationResultDTO result = bulkRegistrationService.registerCsv(eventId, csv());
+
+        // 10 некорректных email, повтор user0 в последней строке, несовпадение данных user5, повторная регистрация user7
+        assertEquals(ROWS, result.getTotalRows());
+        assertEquals(13, result.getRejected());
+        assertEquals(ROWS - 13, result.getRegistered());
+        assertFalse(result.isErrorsTruncated());
+
+        Map<Long, String> errors = result.getErrors().stream()
+                .collect(Collectors.toMap(RegistrationRowErrorDTO::getRow, RegistrationRowErrorDTO::getError));
+        assertEquals("Адрес электронной почты указан неверно", errors.get(2L));
+        assertEquals("Участник с таким email уже существует. Указанные данные не совпадают с существующими", errors.get(6L));
+        assertEquals("Участник уже зарегистрирован на это мероприятие", errors.get(8L));
+        assertEquals("Email повторяется в запросе", errors.get((long) ROWS));
+
+        assertEquals(ROWS - 12, jdbcTemplate.queryForObject(
+                "SELECT registered_count FROM events WHERE id = ?", Integer.class, eventId));
+        assertEquals(ROWS - 12, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM event_participants WHERE event_id = ?", Integer.class, eventId));
+    }
+
+    @Test
+    void registerJson_MoreRowsThanSeats_ShouldRegisterInRequestOrder() {
+        Long eventId = insertEvent(3);
+        String json = """
+                [
+                  {"firstName": "А", "lastName": "Тестов", "email": "json1@example.com", "phone": "+7(999)999-99-99"},
+                  {"firstName": "Б", "lastName": "Тестов", "email": "json2@example.com"},
+                  {"firstName": "В", "lastName": "Тестов", "email": "json3@example.com"},
+                  {"firstName": "Г", "lastName": "Тестов", "email": "json4@example.com"},
+                  {"firstName": "", "lastName": "Тестов", "email": "json5@example.com"}
+                ]""";
+
+        BulkRegistrationResultDTO result = bulkRegistrationService.registerJson(eventId,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(5, result.getTotalRows());
+        assertEquals(3, result.getRegistered());
+        assertEquals(List.of(4L, 5L), result.getErrors().stream().map(RegistrationRowErrorDTO::getRow).toList());
+        assertEquals("На мероприятии не осталось свободных мест", result.getErrors().get(0).getError());
+        assertEquals("Необходимо указать имя", result.getErrors().get(1).getError());
+    }
+
+    /**
+     * CSV формируется по мере чтения, чтобы тест не держал весь файл в памяти.
+     */
+    private static InputStream csv() {
+        Enumeration<InputStream> lines = new Enumeration<>() {
+            private int next = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < ROWS;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String line;
+                if (next < 0) {
+                    line = "firstName,lastName,email,phone\n";
+                } else {
+                    int user = next == ROWS - 1 ? 0 : next;
+                    String email = next % 10_000 == 1 ? "bad-email-" + next : "user" + user + "@example.com";
+                    line = "Имя" + user + ",Тестов," + email + ",\n";
+                }
+                next++;
+                return new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        return new SequenceInputStream(lines);
+    }
+
+    private Long insertEvent(int capacity) {
+        Long roomId = jdbcTemplate.queryForObject(
+                "INSERT INTO rooms (name, capacity) VALUES ('Зал', ?) RETURNING id", Long.class, capacity);
+        LocalDateTime startTime = LocalDateTime.now().plusDays(1);
+        return jdbcTemplate.queryForObject("INSERT INTO events (name, start_time, end_time, room_id) " +
+                        "VALUES ('Конференция', ?, ?, ?) RETURNING id", Long.class,
+                Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(1)), roomId);
+    }
+
+    private Long insertParticipant(String firstName, String email) {
+        return jdbcTemplate.queryForObject("INSERT INTO participants (first_name, last_name, email, email_normalized) " +
+                        "VALUES (?, 'Тестов', ?, lower(?)) RETURNING id", Long.class, firstName, email, email);
+    }
+}
@@ -0,0 +1,115 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.EventManagementApplication;
+import org.nurfet.eventmanagementapplication.PostgresIntegrationTest;
+import org.nurfet.eventmanagementapplication.dto.RoomDTO;
+import org.nurfet.eventmanagementapplication.model.Room;
+import org.nurfet.eventmanagementapplication.repository.RoomRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.nurfet.eventmanagementapplication.PostgresIntegrationTest.POSTGRES;
+
+/**
+ * Два узла с общей БД: изменение помещения на одном узле удаляет запись кэша на другом,
+ * в том числе из кэша второго уровня и кэша запросов Hibernate.
+ */
+public class CacheInvalidationClusterTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    private static ConfigurableApplicationContext nodeA;
+
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void beforeAll() {
+        String url = PostgresIntegrationTest.createDatabase();
+        nodeA = startNode(url);
+        nodeB = startNode(url);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    private static ConfigurableApplicationContext startNode(String url) {
+        return new SpringApplicationBuilder(EventManagementApplication.class).run(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + POSTGRES.getUsername(),
+                "--spring.datasource.password=" + POSTGRES.getPassword(),
+                "--server.port=0",
+                "--scheduling.enabled=false");
+    }
+
+    @Test
+    void updateRoom_OnOneNode_ShouldEvictCachedRoomOnOtherNode() throws InterruptedException {
+        RoomService roomServiceA = nodeA.getBean(RoomService.class);
+        RoomService roomServiceB = nodeB.getBean(RoomService.class);
+
+        RoomDTO room = new RoomDTO();
+        room.setName("Зал");
+        room.setCapacity(50);
+        Long roomId = roomServiceA.createRoom(room).getId();
+
+        assertEquals("Зал", roomServiceB.getRoom(roomId).getName());
+        assertEquals("Зал", roomName(roomServiceB.getAllRooms(), roomId));
+
+        room.setName("Большой зал");
+        roomServiceA.updateRoom(roomId, room);
+
+        awaitEquals("Большой зал", () -> roomServiceB.getRoom(roomId).getName());
+        awaitEquals("Большой зал", () -> roomName(roomServiceB.getAllRooms(), roomId));
+    }
+
+    @Test
+    void updateAndDeleteRoom_OnOneNode_ShouldEvictHibernateCachesOnOtherNode() throws InterruptedException {
+        RoomService roomServiceA = nodeA.getBean(RoomService.class);
+        RoomRepository roomRepositoryB = nodeB.getBean(RoomRepository.class);
+
+        RoomDTO room = new RoomDTO();
+        room.setName("Переговорная");
+        room.setCapacity(20);
+        Long roomId = roomServiceA.createRoom(room).getId();
+
+        // помещение попадает в кэш второго уровня и кэш запросов узла B
+        assertEquals(20, roomRepositoryB.findByIdAndDeletedFalse(roomId).orElseThrow().getCapacity());
+        assertTrue(nodeB.getBean(EntityManagerFactory.class).getCache().contains(Room.class, roomId));
+
+        room.setCapacity(10);
+        roomServiceA.updateRoom(roomId, room);
+
+        awaitEquals(10, () -> roomRepositoryB.findByIdAndDeletedFalse(roomId).map(Room::getCapacity).orElse(null));
+
+        roomServiceA.deleteRoom(roomId);
+
+        awaitEquals(true, () -> roomRepositoryB.findByIdAndDeletedFalse(roomId).isEmpty());
+    }
+
+    private static String roomName(List<RoomDTO> rooms, Long roomId) {
+        return rooms.stream().filter(room -> room.getId().equals(roomId)).map(RoomDTO::getName).findFirst().orElse(null);
+    }
+
+    private static void awaitEquals(Object expected, Supplier<Object> actual) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (expected.equals(actual.get())) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Кэш другого узла не обновлён за " + TIMEOUT_MS + " мс");
+    }
+}
@@ -0,0 +1,65 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CsvRegistrationReaderTest {
+
+    @Test
+    void read_ShouldMapColumnsByHeader() throws IOException {
+        CsvRegistrationReader reader = reader("""
+                email,last_name,firstName,phone
+                ivan@example.com,Петров,Иван,+7(999)999-99-99
+
+                "o""brien@example.com","Смит, младший",Джон,
+                """);
+
+        EventRegistrationDTO first = reader.read();
+        assertEquals("Иван", first.getFirstName());
+        assertEquals("Петров", first.getLastName());
+        assertEquals("ivan@example.com", first.getEmail());
+        assertEquals("+7(999)999-99-99", first.getPhone());
+
+        EventRegistrationDTO second = reader.read();
+        assertEquals("o\"brien@example.com", second.getEmail());
+        assertEquals("Смит, младший", second.getLastName());
+        assertNull(second.getPhone());
+
+        assertNull(reader.read());
+    }
+
+    @Test
+    void read_MalformedRow_ShouldFailOnlyThatRow() throws IOException {
+        CsvRegistrationReader reader = reader("""
+                firstName,lastName,email
+                Иван,Петров
+                Пётр,Сидоров,petr@example.com
+                """);
+
+        assertThrows(IllegalArgumentException.class, reader::read);
+        assertEquals("petr@example.com", reader.read().getEmail());
+    }
+
+    @Test
+    void constructor_MissingColumn_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> reader("firstName,email\n"));
+    }
+
+    @Test
+    void parseLine_ShouldKeepEmptyFields() {
+        assertEquals(List.of("", "a", ""), CsvRegistrationReader.parseLine(",a,"));
+    }
+
+    private static CsvRegistrationReader reader(String csv) throws IOException {
+        return new CsvRegistrationReader(new BufferedReader(new StringReader(csv)));
+    }
+}
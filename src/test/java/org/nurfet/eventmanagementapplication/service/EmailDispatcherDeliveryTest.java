@@ -0,0 +1,88 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Отправка напоминаний через локальный SMTP-сервер GreenMail: все письма доставляются,
+ * а отправку выполняют потоки всех полос.
+ */
+public class EmailDispatcherDeliveryTest {
+
+    private static final int MESSAGES = 2_000;
+
+    private static final int LANES = 4;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    private final Set<String> sendingThreads = ConcurrentHashMap.newKeySet();
+
+    private EmailService emailService;
+
+    private EmailDispatcher emailDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl() {
+            @Override
+            public void send(SimpleMailMessage... simpleMessages) {
+                sendingThreads.add(Thread.currentThread().getName());
+                super.send(simpleMessages);
+            }
+        };
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        mailSender.setDefaultEncoding("UTF-8");
+        mailSender.getJavaMailProperties().put("mail.smtp.from", "events@example.com");
+
+        emailService = new EmailService(mailSender);
+
+        emailDispatcher = new EmailDispatcher(mailSender);
+        ReflectionTestUtils.setField(emailDispatcher, "lanes", LANES);
+        ReflectionTestUtils.setField(emailDispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(emailDispatcher, "queueCapacity", 200);
+        emailDispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        emailDispatcher.stop();
+    }
+
+    @Test
+    void submit_ShouldDeliverAllMessagesThroughAllLanes() {
+        List<CompletableFuture<Void>> results = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            SimpleMailMessage message = emailService.buildEventReminder(
+                    recipient(i), "Конференция по Spring", "2030-01-01 10:00");
+            results.add(emailDispatcher.submit(message));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+        assertTrue(greenMail.waitForIncomingEmail(30_000, MESSAGES));
+        assertEquals(MESSAGES, greenMail.getReceivedMessages().length);
+        assertEquals(LANES, sendingThreads.size(), "Потоки, отправлявшие письма: " + sendingThreads);
+        assertTrue(sendingThreads.stream().allMatch(name -> name.startsWith("email-lane-")));
+    }
+
+    private static String recipient(int i) {
+        return "participant" + i + "@example.com";
+    }
+}
@@ -0,0 +1,84 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Ошибки отправки: письмо, которое не удаётся подготовить, завершается ошибкой, не останавливая
+ * поток полосы, а после остановки письма не принимаются.
+ */
+public class EmailDispatcherTest {
+
+    private final JavaMailSender mailSender = mock(JavaMailSender.class);
+
+    private EmailDispatcher emailDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        emailDispatcher = new EmailDispatcher(mailSender);
+        ReflectionTestUtils.setField(emailDispatcher, "lanes", 2);
+        ReflectionTestUtils.setField(emailDispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(emailDispatcher, "queueCapacity", 10);
+        emailDispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        emailDispatcher.stop();
+    }
+
+    @Test
+    void submit_BrokenMessage_ShouldFailOnlyThatMessage() throws Exception {
+        SimpleMailMessage broken = message("broken@example.com");
+        IllegalArgumentException error = new IllegalArgumentException("Некорректное письмо");
+        doThrow(error).when(mailSender).send(any(SimpleMailMessage[].class));
+        doThrow(error).when(mailSender).send(broken);
+
+        CompletableFuture<Void> brokenResult = emailDispatcher.submit(broken);
+        CompletableFuture<Void> validResult = emailDispatcher.submit(message("valid@example.com"));
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> brokenResult.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        validResult.get(5, TimeUnit.SECONDS);
+
+        // потоки полос продолжают разбирать очереди
+        for (int i = 0; i < 4; i++) {
+            emailDispatcher.submit(message("next" + i + "@example.com")).get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void submit_AfterStop_ShouldFailImmediately() throws InterruptedException {
+        emailDispatcher.stop();
+
+        CompletableFuture<Void> result = emailDispatcher.submit(message("late@example.com"));
+
+        assertTrue(result.isCompletedExceptionally());
+        ExecutionException failure = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+
+    private static SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setSubject("Напоминание");
+        message.setText("Мероприятие начнётся завтра");
+        return message;
+    }
+}
@@ -0,0 +1,117 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.PostgresIntegrationTest;
+import org.nurfet.eventmanagementapplication.dto.ReminderDTO;
+import org.nurfet.eventmanagementapplication.model.EmailOutboxEntry;
+import org.nurfet.eventmanagementapplication.model.EmailOutboxEntry.Status;
+import org.nurfet.eventmanagementapplication.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Очередь исходящих писем на PostgreSQL: идемпотентная постановка, разбор несколькими
+ * обработчиками без повторов и повторные попытки после ошибок.
+ */
+@SpringBootTest(properties = {"scheduling.enabled=false", "email.outbox.max-attempts=2"})
+public class EmailOutboxServiceTest extends PostgresIntegrationTest {
+
+    private static final int REMINDERS = 500;
+
+    private static final String DAY_BEFORE = EmailOutboxService.reminderType(Duration.ofHours(24));
+
+    @Autowired
+    private EmailOutboxService outboxService;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    private final List<ReminderDTO> reminders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+
+        LocalDateTime startTime = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0);
+        for (long i = 1; i <= REMINDERS; i++) {
+            reminders.add(new ReminderDTO(i / 10 + 1, "Мероприятие", startTime, i, "participant" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void enqueueReminders_Twice_ShouldNotDuplicate() {
+        assertEquals(REMINDERS, outboxService.enqueueReminders(reminders, DAY_BEFORE));
+        assertEquals(0, outboxService.enqueueReminders(reminders, DAY_BEFORE));
+        assertEquals(REMINDERS, outboxRepository.count());
+
+        // напоминание другого типа - отдельное письмо
+        String hourBefore = EmailOutboxService.reminderType(Duration.ofHours(1));
+        assertEquals(REMINDERS, outboxService.enqueueReminders(reminders, hourBefore));
+    }
+
+    @Test
+    void claim_ConcurrentWorkers_ShouldClaimEachEntryOnce() throws Exception {
+        outboxService.enqueueReminders(reminders, DAY_BEFORE);
+
+        ConcurrentLinkedQueue<Long> claimed = new ConcurrentLinkedQueue<>();
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(workers.submit(() -> {
+                List<EmailOutboxEntry> batch;
+                do {
+                    batch = outboxService.claim(25);
+                    batch.forEach(entry -> claimed.add(entry.getId()));
+                } while (!batch.isEmpty());
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        workers.shutdown();
+
+        Set<Long> unique = new HashSet<>(claimed);
+        assertEquals(REMINDERS, claimed.size());
+        assertEquals(REMINDERS, unique.size());
+    }
+
+    @Test
+    void complete_WithFailures_ShouldRetryWithBackoffThenGiveUp() {
+        outboxService.enqueueReminders(reminders.subList(0, 2), DAY_BEFORE);
+
+        List<EmailOutboxEntry> batch = outboxService.claim(10);
+        assertEquals(2, batch.size());
+        EmailOutboxEntry sent = batch.get(0);
+        EmailOutboxEntry failed = batch.get(1);
+
+        outboxService.complete(List.of(sent.getId()), Map.of(failed, "Сервер недоступен"));
+
+        assertEquals(Status.SENT, outboxRepository.findById(sent.getId()).orElseThrow().getStatus());
+        EmailOutboxEntry retry = outboxRepository.findById(failed.getId()).orElseThrow();
+        assertEquals(Status.PENDING, retry.getStatus());
+        assertEquals(1, retry.getAttempts());
+        assertTrue(retry.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        // до истечения задержки письмо не выдаётся повторно
+        assertTrue(outboxService.claim(10).isEmpty());
+
+        retry.setAttempts(2);
+        outboxService.complete(List.of(), Map.of(retry, "Сервер недоступен"));
+        assertEquals(Status.FAILED, outboxRepository.findById(failed.getId()).orElseThrow().getStatus());
+    }
+}
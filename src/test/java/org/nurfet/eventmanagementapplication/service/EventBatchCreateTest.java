@@ -0,0 +1,97 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.PostgresIntegrationTest;
+import org.nurfet.eventmanagementapplication.dto.EventBatchResultDTO;
+import org.nurfet.eventmanagementapplication.dto.EventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Создание мероприятий пачкой на PostgreSQL: результат по каждому мероприятию и вставка большой
+ * пачки. Скорость в сравнении с созданием по одному измеряет EventBatchCreateBenchmark (src/jmh).
+ */
+@SpringBootTest(properties = "scheduling.enabled=false")
+public class EventBatchCreateTest extends PostgresIntegrationTest {
+
+    private static final int EVENTS = 500;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime day = LocalDateTime.now().plusDays(2).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+    @Test
+    void createEventsBatch_ShouldReportResultPerEvent() {
+        Long hall = insertRoom("Большой зал");
+        Long classroom = insertRoom("Аудитория");
+        eventService.createEvent(event("Существующее", hall, day.withHour(10), day.withHour(11)));
+
+        List<EventBatchResultDTO> results = eventService.createEventsBatch(List.of(
+                event("Лекция", hall, day.withHour(12), day.withHour(13)),
+                event("Пересекается с лекцией", hall, day.withHour(12).withMinute(30), day.withHour(14)),
+                event("Пересекается с существующим", hall, day.withHour(10).withMinute(30), day.withHour(10).withMinute(45)),
+                event("Семинар", classroom, day.withHour(10), day.withHour(11)),
+                event("Нет помещения", -1L, day.withHour(10), day.withHour(11)),
+                event("Окончание раньше начала", classroom, day.withHour(15), day.withHour(14)),
+                event(null, classroom, day.withHour(16), day.withHour(17))));
+
+        assertEquals(List.of("CREATED", "REJECTED", "REJECTED", "CREATED", "REJECTED", "REJECTED", "REJECTED"),
+                results.stream().map(EventBatchResultDTO::getStatus).toList());
+        assertEquals("Помещение уже забронировано на это время", results.get(1).getError());
+        assertEquals("Помещение не найдено", results.get(4).getError());
+
+        EventDTO lecture = results.get(0).getEvent();
+        assertNotNull(lecture.getId());
+        assertEquals("Лекция", eventService.getEvent(lecture.getId()).getName());
+        // занятое пачкой время проверяется и для последующих мероприятий
+        assertTrue(eventService.createEventsBatch(List.of(
+                event("Повтор", hall, day.withHour(13), day.withHour(15)))).get(0).getError() != null);
+    }
+
+    @Test
+    void createEventsBatch_LargeBatch_ShouldCreateAllEvents() {
+        Long roomId = insertRoom("Зал для пачки");
+
+        List<EventDTO> batch = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            batch.add(hourly(roomId, i));
+        }
+        List<EventBatchResultDTO> results = eventService.createEventsBatch(batch);
+
+        assertTrue(results.stream().allMatch(result -> "CREATED".equals(result.getStatus())));
+        assertEquals(EVENTS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT id) FROM events WHERE room_id = ?", Integer.class, roomId));
+    }
+
+    private Long insertRoom(String name) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO rooms (name, capacity) VALUES (?, 100) RETURNING id", Long.class, name);
+    }
+
+    private EventDTO hourly(Long roomId, int index) {
+        LocalDateTime start = day.plusHours(2L * index);
+        return event("Занятие " + index, roomId, start, start.plusHours(1));
+    }
+
+    private EventDTO event(String name, Long roomId, LocalDateTime start, LocalDateTime end) {
+        EventDTO dto = new EventDTO();
+        dto.setName(name);
+        dto.setStartTime(start);
+        dto.setEndTime(end);
+        dto.setRoomId(roomId);
+        return dto;
+    }
+}
@@ -0,0 +1,87 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.PostgresIntegrationTest;
+import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Параллельная регистрация на PostgreSQL: участников больше, чем мест в помещении, и все
+ * регистрируются одновременно. Мероприятие заполняется ровно до вместимости, остальные
+ * участники попадают в лист ожидания.
+ */
+@SpringBootTest(properties = "scheduling.enabled=false")
+public class EventRegistrationConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int CAPACITY = 10;
+    private static final int PARTICIPANTS = 40;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void registerParticipant_Concurrently_ShouldNotOverbook() throws Exception {
+        Long eventId = insertEvent();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(PARTICIPANTS);
+
+        List<Future<String>> statuses = new ArrayList<>();
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            EventRegistrationDTO registration = new EventRegistrationDTO("Иван" + i, "Петров",
+                    "concurrent" + i + "@example.com", "+7(999)999-99-99");
+            Callable<String> register = () -> {
+                startSignal.await();
+                return eventService.registerParticipant(eventId, registration).getStatus();
+            };
+            statuses.add(clients.submit(register));
+        }
+
+        startSignal.countDown();
+        int registered = 0;
+        int waitlisted = 0;
+        for (Future<String> status : statuses) {
+            // исключение регистрации пробрасывается из get() и проваливает тест
+            if ("REGISTERED".equals(status.get())) {
+                registered++;
+            } else {
+                waitlisted++;
+            }
+        }
+        clients.shutdown();
+
+        assertEquals(CAPACITY, registered);
+        assertEquals(PARTICIPANTS - CAPACITY, waitlisted);
+        assertEquals(CAPACITY, jdbcTemplate.queryForObject(
+                "SELECT registered_count FROM events WHERE id = ?", Integer.class, eventId));
+        assertEquals(CAPACITY, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM event_participants WHERE event_id = ?", Integer.class, eventId));
+        assertEquals(PARTICIPANTS - CAPACITY, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM event_waitlist WHERE event_id = ?", Integer.class, eventId));
+    }
+
+    private Long insertEvent() {
+        Long roomId = jdbcTemplate.queryForObject(
+                "INSERT INTO rooms (name, capacity) VALUES ('Малый зал', ?) RETURNING id", Long.class, CAPACITY);
+        LocalDateTime startTime = LocalDateTime.now().plusDays(1);
+        return jdbcTemplate.queryForObject("INSERT INTO events (name, start_time, end_time, room_id) " +
+                        "VALUES ('Популярное мероприятие', ?, ?, ?) RETURNING id", Long.class,
+                Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(1)), roomId);
+    }
+}
@@ -0,0 +1,135 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
+import org.nurfet.eventmanagementapplication.dto.ReservationDTO;
+import org.nurfet.eventmanagementapplication.exception.ResourceNotFoundException;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Синтетическая «давка» на бронирование мест: много потоков одновременно запрашивают места
+ * на одно мероприятие. Проверяет, что мест выдано ровно столько, сколько есть, и все
+ * подтверждения записаны.
+ */
+public class FlashSaleServiceStampedeTest {
+
+    private static final long EVENT_ID = 1L;
+    private static final int CAPACITY = 5_000;
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS_PER_THREAD = 500;
+
+    private final AtomicInteger written = new AtomicInteger();
+
+    private EventRepository eventRepository;
+
+    private FlashSaleService flashSaleService;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        EventService eventService = mock(EventService.class);
+
+        when(eventRepository.findFlashSaleFreeSeats(EVENT_ID)).thenReturn(Optional.of(CAPACITY));
+        when(eventService.registerParticipantsBatch(eq(EVENT_ID), anyList())).thenAnswer(invocation -> {
+            List<EventRegistrationDTO> batch = invocation.getArgument(1);
+            written.addAndGet(batch.size());
+            return Collections.nCopies(batch.size(), null);
+        });
+
+        flashSaleService = new FlashSaleService(eventRepository, eventService, mock(CacheInvalidator.class));
+        ReflectionTestUtils.setField(flashSaleService, "reservationTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(flashSaleService, "batchSize", 200);
+        // запись пачек вызывается из теста явно
+        ReflectionTestUtils.setField(flashSaleService, "flushInterval", Duration.ofHours(1));
+        flashSaleService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        flashSaleService.stop();
+    }
+
+    @Test
+    void reserve_UnderStampede_ShouldHandOutExactlyCapacity() throws Exception {
+        ConcurrentLinkedQueue<String> tokens = new ConcurrentLinkedQueue<>();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            clients.submit(() -> {
+                startSignal.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        tokens.add(flashSaleService.reserve(EVENT_ID).getToken());
+                    } catch (IllegalStateException soldOut) {
+                        // мест не осталось - ожидаемо для большей части запросов
+                    }
+                }
+                return null;
+            });
+        }
+
+        startSignal.countDown();
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(CAPACITY, tokens.size());
+
+        for (String token : tokens) {
+            flashSaleService.confirm(EVENT_ID, token, registration(token));
+        }
+        flashSaleService.flush();
+
+        assertEquals(CAPACITY, written.get());
+        ReservationDTO reservation = flashSaleService.getReservation(EVENT_ID, tokens.peek());
+        assertEquals("CONFIRMED", reservation.getStatus());
+    }
+
+    @Test
+    void onSeatsReleased_ShouldReturnFreedSeatToPoolAndEvictFinishedEvent() {
+        when(eventRepository.findFlashSaleFreeSeats(EVENT_ID)).thenReturn(Optional.of(2));
+        String confirmed = flashSaleService.reserve(EVENT_ID).getToken();
+        flashSaleService.reserve(EVENT_ID);
+        flashSaleService.confirm(EVENT_ID, confirmed, registration(confirmed));
+        flashSaleService.flush();
+        assertThrows(IllegalStateException.class, () -> flashSaleService.reserve(EVENT_ID));
+
+        // подтверждённый участник отменил регистрацию; второе бронирование ещё действует
+        when(eventRepository.findFlashSaleFreeSeats(EVENT_ID)).thenReturn(Optional.of(2));
+        flashSaleService.onSeatsReleased(new SeatsReleasedEvent(EVENT_ID));
+
+        flashSaleService.reserve(EVENT_ID);
+        assertThrows(IllegalStateException.class, () -> flashSaleService.reserve(EVENT_ID));
+
+        when(eventRepository.findFlashSaleFreeSeats(EVENT_ID)).thenReturn(Optional.empty());
+        flashSaleService.reconcilePools();
+
+        assertThrows(ResourceNotFoundException.class, () -> flashSaleService.reserve(EVENT_ID));
+    }
+
+    private EventRegistrationDTO registration(String token) {
+        return new EventRegistrationDTO("Иван", "Петров", token + "@example.com", "+7(999)999-99-99");
+    }
+}
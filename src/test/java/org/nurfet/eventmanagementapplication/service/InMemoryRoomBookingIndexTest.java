@@ -0,0 +1,142 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO;
+import org.nurfet.eventmanagementapplication.model.Event;
+import org.nurfet.eventmanagementapplication.model.Room;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InMemoryRoomBookingIndexTest {
+
+    private static final long ROOM_ID = 1L;
+
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+
+    private final List<Event> events = new ArrayList<>();
+
+    private EventRepository eventRepository;
+
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        when(eventRepository.findByRoomIdAndDeletedFalse(ROOM_ID)).thenAnswer(invocation -> List.copyOf(events));
+        when(eventRepository.findBookingIntervalsEndingAfter(any())).thenReturn(List.of());
+        when(eventRepository.findBookingIntervalsEndingAfter(eq(ROOM_ID), any())).thenAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(1);
+            return events.stream()
+                    .filter(event -> !event.getEndTime().isBefore(from))
+                    .map(event -> new BookingIntervalDTO(event.getId(), ROOM_ID, event.getStartTime(), event.getEndTime()))
+                    .toList();
+        });
+
+        room = new Room();
+        room.setId(ROOM_ID);
+    }
+
+    @Test
+    void isOccupied_TouchingBoundaries_ShouldConflict() {
+        addEvent(1L, base, base.plusHours(2));
+
+        InMemoryRoomBookingIndex index = new InMemoryRoomBookingIndex(eventRepository);
+
+        assertTrue(index.isOccupied(ROOM_ID, null, base.plusHours(2), base.plusHours(3)));
+        assertTrue(index.isOccupied(ROOM_ID, null, base.minusHours(1), base));
+        assertFalse(index.isOccupied(ROOM_ID, null, base.plusHours(2).plusMinutes(1), base.plusHours(3)));
+        assertFalse(index.isOccupied(ROOM_ID, 1L, base, base.plusHours(2)));
+    }
+
+    @Test
+    void isOccupied_RandomBookings_ShouldMatchDatabaseScan() {
+        Random random = new Random(42);
+        for (long id = 1; id <= 500; id++) {
+            LocalDateTime start = base.plusMinutes(random.nextInt(60 * 24 * 60));
+            addEvent(id, start, start.plusMinutes(15 + random.nextInt(60 * 48)));
+        }
+
+        InMemoryRoomBookingIndex memoryIndex = new InMemoryRoomBookingIndex(eventRepository);
+        DatabaseRoomBookingIndex databaseIndex = new DatabaseRoomBookingIndex(eventRepository);
+
+        for (int i = 0; i < 5_000; i++) {
+            if (i % 10 == 0) {
+                mutate(random, memoryIndex);
+            }
+
+            LocalDateTime start = base.plusMinutes(random.nextInt(60 * 24 * 60));
+            LocalDateTime end = start.plusMinutes(random.nextInt(60 * 6));
+            Long excluded = random.nextBoolean() ? null : 1L + random.nextInt(events.size());
+
+            assertEquals(databaseIndex.isOccupied(ROOM_ID, excluded, start, end),
+                    memoryIndex.isOccupied(ROOM_ID, excluded, start, end),
+                    "Расхождение для интервала " + start + " - " + end + ", исключено: " + excluded);
+            assertEquals(eventIds(databaseIndex.getBookings(ROOM_ID, start, end)),
+                    eventIds(memoryIndex.getBookings(ROOM_ID, start, end)),
+                    "Расхождение бронирований для интервала " + start + " - " + end);
+        }
+    }
+
+    private void mutate(Random random, InMemoryRoomBookingIndex index) {
+        Event event = events.get(random.nextInt(events.size()));
+        if (random.nextInt(4) == 0) {
+            events.remove(event);
+            index.onEventDeleted(event);
+        } else {
+            LocalDateTime start = base.plusMinutes(random.nextInt(60 * 24 * 60));
+            event.setStartTime(start);
+            event.setEndTime(start.plusMinutes(15 + random.nextInt(60 * 24)));
+            index.onEventSaved(event);
+        }
+    }
+
+    @Test
+    void isOccupied_ModifiedDuringLoad_ShouldReloadRoom() {
+        addEvent(1L, base, base.plusHours(2));
+        InMemoryRoomBookingIndex index = new InMemoryRoomBookingIndex(eventRepository);
+
+        // мероприятие переносится, пока индекс читает расписание помещения
+        Event event = events.get(0);
+        when(eventRepository.findBookingIntervalsEndingAfter(eq(ROOM_ID), any()))
+                .thenAnswer(invocation -> {
+                    List<BookingIntervalDTO> stale = List.of(
+                            new BookingIntervalDTO(1L, ROOM_ID, event.getStartTime(), event.getEndTime()));
+                    event.setStartTime(base.plusHours(5));
+                    event.setEndTime(base.plusHours(6));
+                    index.onEventSaved(event);
+                    return stale;
+                })
+                .thenAnswer(invocation -> List.of(
+                        new BookingIntervalDTO(1L, ROOM_ID, event.getStartTime(), event.getEndTime())));
+
+        assertFalse(index.isOccupied(ROOM_ID, null, base, base.plusHours(1)));
+        assertTrue(index.isOccupied(ROOM_ID, null, base.plusHours(5), base.plusHours(6)));
+    }
+
+    private static List<Long> eventIds(List<BookingIntervalDTO> bookings) {
+        return bookings.stream().map(BookingIntervalDTO::getEventId).toList();
+    }
+
+    private void addEvent(Long id, LocalDateTime start, LocalDateTime end) {
+        Event event = new Event();
+        event.setId(id);
+        event.setName("Event " + id);
+        event.setStartTime(start);
+        event.setEndTime(end);
+        event.setRoom(room);
+        events.add(event);
+    }
+}
@@ -0,0 +1,128 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.PostgresIntegrationTest;
+import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
+import org.nurfet.eventmanagementapplication.dto.RegistrationResultDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Регистрация новых и повторных участников на PostgreSQL: участник ищется в БД только
+ * если его email уже встречался, а email сравнивается без учёта регистра.
+ */
+@SpringBootTest(properties = {"scheduling.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "org.nurfet.eventmanagementapplication.service.ParticipantRegistrationLookupTest$ParticipantSelectCounter"})
+public class ParticipantRegistrationLookupTest extends PostgresIntegrationTest {
+
+    private static final int NEW_PARTICIPANTS = 300;
+    private static final int RETURNING_PARTICIPANTS = 60;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void registerParticipant_NewEmails_ShouldNotLookUpParticipant() {
+        Long firstEvent = insertEvent("Первое мероприятие");
+        Long secondEvent = insertEvent("Второе мероприятие");
+        int participantsBefore = countParticipants();
+
+        for (int i = 0; i < NEW_PARTICIPANTS; i++) {
+            eventService.registerParticipant(firstEvent, registration(i, "user" + i + "@example.com"));
+        }
+
+        ParticipantSelectCounter.count.set(0);
+        for (int i = 0; i < NEW_PARTICIPANTS; i++) {
+            // каждый пятый участник возвращается с тем же email в другом регистре
+            String email = i % 5 == 0
+                    ? ("User" + i + "@Example.com").toUpperCase(Locale.ROOT)
+                    : "guest" + i + "@example.com";
+            RegistrationResultDTO result = eventService.registerParticipant(secondEvent, registration(i, email));
+            assertEquals("REGISTERED", result.getStatus());
+        }
+
+        int lookups = ParticipantSelectCounter.count.get();
+        assertEquals(RETURNING_PARTICIPANTS, lookups, "Поиски участника по email");
+        assertEquals(NEW_PARTICIPANTS + NEW_PARTICIPANTS - RETURNING_PARTICIPANTS,
+                countParticipants() - participantsBefore);
+    }
+
+    @Test
+    void registerParticipant_SameEmailDifferentData_ShouldBeRejected() {
+        Long eventId = insertEvent("Мероприятие");
+        eventService.registerParticipant(eventId, registration(1, "conflict@example.com"));
+
+        EventRegistrationDTO other = new EventRegistrationDTO("Пётр", "Сидоров", "Conflict@Example.com",
+                "+7(999)999-99-99");
+        assertThrows(IllegalStateException.class, () -> eventService.registerParticipant(eventId, other));
+    }
+
+    @Test
+    void registerParticipantsBatch_FailingRow_ShouldRegisterOtherRows() {
+        Long eventId = insertEvent("Мероприятие с подтверждениями");
+        // телефон длиннее столбца phone: вставка участника нарушает ограничение БД
+        EventRegistrationDTO invalid = new EventRegistrationDTO("Пётр", "Сидоров", "batch-invalid@example.com",
+                "+7(999)999-99-99 доб. 12345");
+
+        List<String> results = eventService.registerParticipantsBatch(eventId, List.of(
+                registration(1, "batch1@example.com"), invalid, registration(3, "batch3@example.com")));
+
+        assertNull(results.get(0));
+        assertNotNull(results.get(1));
+        assertNull(results.get(2));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM event_participants WHERE event_id = ?", Integer.class, eventId));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT registered_count FROM events WHERE id = ?", Integer.class, eventId));
+    }
+
+    private Long insertEvent(String name) {
+        Long roomId = jdbcTemplate.queryForObject(
+                "INSERT INTO rooms (name, capacity) VALUES ('Зал', 1000) RETURNING id", Long.class);
+        LocalDateTime startTime = LocalDateTime.now().plusDays(1);
+        return jdbcTemplate.queryForObject("INSERT INTO events (name, start_time, end_time, room_id) " +
+                        "VALUES (?, ?, ?, ?) RETURNING id", Long.class,
+                name, Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(1)), roomId);
+    }
+
+    private int countParticipants() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM participants", Integer.class);
+    }
+
+    private EventRegistrationDTO registration(int index, String email) {
+        return new EventRegistrationDTO("Иван" + index, "Петров", email, "+7(999)999-99-99");
+    }
+
+    /**
+     * Считает запросы SELECT к таблице участников.
+     */
+    public static class ParticipantSelectCounter implements StatementInspector {
+
+        static final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public String inspect(String statement) {
+            if (statement.startsWith("select") && statement.contains(" from participants ")) {
+                count.incrementAndGet();
+            }
+            return statement;
+        }
+    }
+}
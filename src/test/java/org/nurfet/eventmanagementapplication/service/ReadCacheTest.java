@@ -0,0 +1,151 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.dto.EventDTO;
+import org.nurfet.eventmanagementapplication.dto.EventRegistrationDTO;
+import org.nurfet.eventmanagementapplication.dto.RoomDTO;
+import org.nurfet.eventmanagementapplication.model.Event;
+import org.nurfet.eventmanagementapplication.model.Participant;
+import org.nurfet.eventmanagementapplication.model.Room;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+import org.nurfet.eventmanagementapplication.repository.ParticipantRepository;
+import org.nurfet.eventmanagementapplication.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Кэши чтения: повторное чтение не обращается к БД (и к пулу соединений), а изменение
+ * через сервис удаляет устаревшую запись.
+ */
+@SpringBootTest(properties = {
+        "spring.cache.type=caffeine",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+public class ReadCacheTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private ParticipantService participantService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ParticipantRepository participantRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+    private Room room;
+
+    private Event event;
+
+    private Participant participant;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository.deleteAll();
+        participantRepository.deleteAll();
+        roomRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        room = new Room();
+        room.setName("Зал");
+        room.setCapacity(50);
+        room = roomRepository.save(room);
+
+        event = new Event();
+        event.setName("Конференция");
+        event.setStartTime(start);
+        event.setEndTime(start.plusHours(2));
+        event.setRoom(room);
+        event = eventRepository.save(event);
+
+        participant = new Participant();
+        participant.setFirstName("Иван");
+        participant.setLastName("Петров");
+        participant.setEmail("ivan@example.com");
+        participant.setPhone("+7(999)999-99-99");
+        participant = participantRepository.save(participant);
+    }
+
+    @Test
+    void getEvent_Repeated_ShouldNotTouchDatabaseUntilUpdated() {
+        assertDatabaseAccess(true, () -> eventService.getEvent(event.getId()));
+        assertDatabaseAccess(false, () -> eventService.getEvent(event.getId()));
+
+        EventDTO update = eventService.getEvent(event.getId());
+        EventDTO changed = new EventDTO();
+        changed.setName("Конференция (перенесена)");
+        changed.setStartTime(update.getStartTime().plusHours(3));
+        changed.setEndTime(update.getEndTime().plusHours(3));
+        changed.setRoomId(room.getId());
+        eventService.updateEvent(event.getId(), changed);
+
+        assertEquals("Конференция (перенесена)", eventService.getEvent(event.getId()).getName());
+    }
+
+    @Test
+    void getRoom_AfterRename_ShouldRefreshRoomAndEvents() {
+        assertEquals("Зал", eventService.getEvent(event.getId()).getRoomName());
+        roomService.getAllRooms();
+        assertDatabaseAccess(false, () -> roomService.getAllRooms());
+        assertDatabaseAccess(true, () -> roomService.getRoom(room.getId()));
+        assertDatabaseAccess(false, () -> roomService.getRoom(room.getId()));
+
+        RoomDTO renamed = new RoomDTO();
+        renamed.setName("Большой зал");
+        renamed.setCapacity(100);
+        roomService.updateRoom(room.getId(), renamed);
+
+        assertEquals("Большой зал", roomService.getRoom(room.getId()).getName());
+        assertEquals("Большой зал", roomService.getAllRooms().get(0).getName());
+        assertEquals("Большой зал", eventService.getEvent(event.getId()).getRoomName());
+    }
+
+    @Test
+    void getParticipant_AfterUpdate_ShouldReturnNewData() {
+        assertDatabaseAccess(true, () -> participantService.getParticipant(participant.getId()));
+        assertDatabaseAccess(false, () -> participantService.getParticipant(participant.getId()));
+
+        participantService.updateParticipant(participant.getId(),
+                new EventRegistrationDTO("Иван", "Сидоров", "ivan@example.com", "+7(999)999-99-99"));
+
+        assertEquals("Сидоров", participantService.getParticipant(participant.getId()).getLastName());
+    }
+
+    private void assertDatabaseAccess(boolean expected, Supplier<?> read) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        read.get();
+
+        assertEquals(expected, statistics.getPrepareStatementCount() > 0, "SQL-запросы");
+        assertEquals(expected, statistics.getConnectCount() > 0, "Соединения из пула");
+    }
+}
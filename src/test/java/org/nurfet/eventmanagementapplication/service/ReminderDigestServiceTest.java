@@ -0,0 +1,127 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.PostgresIntegrationTest;
+import org.nurfet.eventmanagementapplication.model.EmailOutboxEntry;
+import org.nurfet.eventmanagementapplication.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сводки напоминаний на PostgreSQL: одно письмо на участника со всеми его мероприятиями дня;
+ * сводки узла, потерявшего аренду, откатываются.
+ */
+@SpringBootTest(properties = {"scheduling.enabled=false", "reminder.chunk-size=2"})
+public class ReminderDigestServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ReminderDigestService digestService;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private SchedulerLeaseService leaseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void enqueueDigests_ShouldSendOneEmailPerParticipant() {
+        LocalDate day = LocalDate.now().plusDays(1);
+        Long roomId = jdbcTemplate.queryForObject(
+                "INSERT INTO rooms (name, capacity) VALUES ('Зал', 100) RETURNING id", Long.class);
+
+        Long morning = insertEvent("Утренняя лекция", day.atTime(9, 0), roomId, false);
+        Long noon = insertEvent("Семинар", day.atTime(12, 0), roomId, false);
+        Long evening = insertEvent("Вечерний доклад", day.atTime(18, 0), roomId, false);
+        Long cancelled = insertEvent("Отменённое", day.atTime(15, 0), roomId, true);
+        Long nextDay = insertEvent("Послезавтра", day.plusDays(1).atTime(9, 0), roomId, false);
+
+        List<Long> participants = List.of(insertParticipant("a"), insertParticipant("b"),
+                insertParticipant("c"), insertParticipant("d"));
+
+        // участник a записан на три мероприятия дня, b и c - на одно, d - только на отменённое и послезавтра
+        register(evening, participants.get(0));
+        register(morning, participants.get(0));
+        register(noon, participants.get(0));
+        register(noon, participants.get(1));
+        register(morning, participants.get(2));
+        register(cancelled, participants.get(3));
+        register(nextDay, participants.get(3));
+
+        assertEquals(3, digestService.enqueueDigests(day));
+        // повторный запуск за тот же день писем не добавляет
+        assertEquals(0, digestService.enqueueDigests(day));
+
+        EmailOutboxEntry digest = outboxRepository.findAll().stream()
+                .filter(entry -> entry.getParticipantId().equals(participants.get(0)))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(EmailOutboxService.digestType(day), digest.getEmailType());
+        String body = digest.getBody();
+        assertTrue(body.indexOf("Утренняя лекция") < body.indexOf("Семинар"));
+        assertTrue(body.indexOf("Семинар") < body.indexOf("Вечерний доклад"));
+        assertTrue(!body.contains("Отменённое") && !body.contains("Послезавтра"));
+    }
+
+    @Test
+    void enqueueDigests_ShouldRollBackWhenLeaseTakenOver() {
+        LocalDate day = LocalDate.now().plusDays(3);
+        Long roomId = jdbcTemplate.queryForObject(
+                "INSERT INTO rooms (name, capacity) VALUES ('Малый зал', 10) RETURNING id", Long.class);
+        Long eventId = insertEvent("Мастер-класс", day.atTime(10, 0), roomId, false);
+        register(eventId, insertParticipant("e"));
+        register(eventId, insertParticipant("f"));
+        register(eventId, insertParticipant("g"));
+
+        long token = leaseService.tryAcquire("test-digest").getAsLong();
+        // аренда истекла и перешла к другому узлу, пока держатель формировал сводки
+        jdbcTemplate.update("UPDATE scheduler_leases SET holder = 'other', fencing_token = fencing_token + 1 " +
+                "WHERE name = 'test-digest'");
+
+        assertThrows(IllegalStateException.class, () -> digestService.enqueueDigests(day, "test-digest", token));
+        assertEquals(0, countDigests(day));
+        assertTrue(leaseService.completedRun("test-digest").isEmpty());
+
+        jdbcTemplate.update("UPDATE scheduler_leases SET expires_at = LOCALTIMESTAMP - INTERVAL '1 minute' " +
+                "WHERE name = 'test-digest'");
+        long newToken = leaseService.tryAcquire("test-digest").getAsLong();
+
+        assertEquals(3, digestService.enqueueDigests(day, "test-digest", newToken));
+        assertEquals(3, countDigests(day));
+        assertEquals(Optional.of(day.toString()), leaseService.completedRun("test-digest"));
+    }
+
+    private int countDigests(LocalDate day) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE email_type = ?",
+                Integer.class, EmailOutboxService.digestType(day));
+    }
+
+    private Long insertEvent(String name, LocalDateTime startTime, Long roomId, boolean deleted) {
+        return jdbcTemplate.queryForObject("INSERT INTO events (name, start_time, end_time, room_id, deleted) " +
+                        "VALUES (?, ?, ?, ?, ?) RETURNING id", Long.class,
+                name, Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(1)), roomId, deleted);
+    }
+
+    private Long insertParticipant(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO participants (first_name, last_name, email, email_normalized) " +
+                "VALUES (?, 'Тестов', ?, ?) RETURNING id", Long.class, name, name + "@example.com", name + "@example.com");
+    }
+
+    private void register(Long eventId, Long participantId) {
+        jdbcTemplate.update("INSERT INTO event_participants (event_id, participant_id) VALUES (?, ?)",
+                eventId, participantId);
+    }
+}
@@ -0,0 +1,140 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO;
+import org.nurfet.eventmanagementapplication.dto.ReminderDTO;
+import org.nurfet.eventmanagementapplication.model.Event;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+import org.nurfet.eventmanagementapplication.service.SchedulerLeaseService.Partition;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReminderServiceTest {
+
+    private static final String HOUR_BEFORE = EmailOutboxService.reminderType(Duration.ofHours(1));
+    private static final String TEN_MINUTES_BEFORE = EmailOutboxService.reminderType(Duration.ofMinutes(10));
+
+    private final LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+
+    private final LocalDateTime startTime = now.plusHours(3);
+
+    private EventRepository eventRepository;
+
+    private EmailOutboxService outboxService;
+
+    private SchedulerLeaseService leaseService;
+
+    private ReminderService reminderService;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        outboxService = mock(EmailOutboxService.class);
+        leaseService = mock(SchedulerLeaseService.class);
+
+        when(leaseService.partition()).thenReturn(Partition.SINGLE);
+        when(eventRepository.findBookingIntervalsStartingBetween(any(), any(), anyInt(), anyInt()))
+                .thenReturn(List.of(new BookingIntervalDTO(1L, 1L, startTime, startTime.plusHours(2))));
+        when(eventRepository.findEventRemindersAfter(eq(1L), any(), eq(0L), any(Pageable.class)))
+                .thenAnswer(invocation -> List.of(new ReminderDTO(1L, "Мероприятие", invocation.getArgument(1),
+                        7L, "ivan@example.com")));
+
+        reminderService = new ReminderService(eventRepository, outboxService, leaseService);
+        ReflectionTestUtils.setField(reminderService, "offsets",
+                List.of(Duration.ofHours(24), Duration.ofHours(1), Duration.ofMinutes(10)));
+        ReflectionTestUtils.setField(reminderService, "tick", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(reminderService, "loadAhead", Duration.ofHours(1));
+        ReflectionTestUtils.setField(reminderService, "chunkSize", 500);
+        ReflectionTestUtils.setField(reminderService, "catchUp", Duration.ofMinutes(2));
+    }
+
+    @Test
+    void fireDue_ShouldEnqueueEachOffsetAtItsTime() {
+        reminderService.loadUpcoming(now);
+
+        // напоминание за сутки уже в прошлом и не планируется
+        reminderService.fireDue(now.plusHours(1));
+        verify(outboxService, never()).enqueueReminders(any(), anyString());
+
+        reminderService.fireDue(startTime.minusHours(1));
+        verify(outboxService).enqueueReminders(any(), eq(HOUR_BEFORE));
+
+        reminderService.fireDue(startTime.minusMinutes(10));
+        verify(outboxService).enqueueReminders(any(), eq(TEN_MINUTES_BEFORE));
+
+        reminderService.fireDue(startTime.plusHours(1));
+        verify(outboxService, times(2)).enqueueReminders(any(), anyString());
+    }
+
+    @Test
+    void onEventSaved_NewStartTime_ShouldReschedule() {
+        reminderService.loadUpcoming(now);
+
+        LocalDateTime movedStart = startTime.plusMinutes(30);
+        Event event = new Event();
+        event.setId(1L);
+        event.setStartTime(movedStart);
+        reminderService.onEventSaved(event);
+
+        reminderService.fireDue(startTime.minusHours(1));
+        verify(outboxService, never()).enqueueReminders(any(), anyString());
+
+        reminderService.fireDue(movedStart.minusHours(1));
+        verify(outboxService).enqueueReminders(any(), eq(HOUR_BEFORE));
+        verify(eventRepository).findEventRemindersAfter(eq(1L), eq(movedStart), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void onEventDeleted_ShouldCancelReminders() {
+        reminderService.loadUpcoming(now);
+
+        Event event = new Event();
+        event.setId(1L);
+        event.setStartTime(startTime);
+        reminderService.onEventDeleted(event);
+
+        reminderService.fireDue(startTime);
+        verify(outboxService, never()).enqueueReminders(any(), anyString());
+    }
+
+    @Test
+    void loadUpcoming_ShouldOnlyQueryPastPreviousHorizon() {
+        reminderService.loadUpcoming(now);
+        reminderService.loadUpcoming(now.plusMinutes(10));
+
+        LocalDateTime firstHorizon = now.plusHours(25);
+        verify(eventRepository).findBookingIntervalsStartingBetween(now, firstHorizon, 1, 0);
+        verify(eventRepository).findBookingIntervalsStartingBetween(firstHorizon, firstHorizon.plusMinutes(10), 1, 0);
+    }
+
+    @Test
+    void loadUpcoming_PartitionChanged_ShouldReloadOwnPartitionAndCatchUp() {
+        reminderService.loadUpcoming(now);
+
+        // мероприятие на время перешло другому узлу, который остановился до напоминания за час
+        when(leaseService.partition()).thenReturn(new Partition(1, 2));
+        reminderService.loadUpcoming(now.plusMinutes(1));
+        when(leaseService.partition()).thenReturn(Partition.SINGLE);
+        reminderService.loadUpcoming(startTime.minusHours(1).plusMinutes(1));
+
+        verify(eventRepository).findBookingIntervalsStartingBetween(now.plusMinutes(1), now.plusMinutes(1).plusHours(25), 2, 1);
+        reminderService.fireDue(startTime.minusHours(1).plusMinutes(1));
+        verify(outboxService).enqueueReminders(any(), eq(HOUR_BEFORE));
+    }
+}
@@ -0,0 +1,96 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.dto.BookingIntervalDTO;
+import org.nurfet.eventmanagementapplication.dto.FreeSlotDTO;
+import org.nurfet.eventmanagementapplication.dto.RoomDTO;
+import org.nurfet.eventmanagementapplication.repository.EventRepository;
+import org.nurfet.eventmanagementapplication.repository.RoomRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RoomServiceFreeSlotsTest {
+
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+
+    private final RoomDTO smallRoom = new RoomDTO(1L, "Переговорная", 10);
+
+    private final RoomDTO largeRoom = new RoomDTO(2L, "Конференц-зал", 100);
+
+    private RoomRepository roomRepository;
+
+    private RoomBookingIndex roomBookingIndex;
+
+    private RoomService roomService;
+
+    @BeforeEach
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        roomBookingIndex = mock(RoomBookingIndex.class);
+        roomService = new RoomService(roomRepository, mock(EventRepository.class), roomBookingIndex,
+                mock(CacheInvalidator.class), mock(WaitlistService.class));
+
+        when(roomRepository.findDTOsWithCapacityAtLeast(0)).thenReturn(List.of(smallRoom, largeRoom));
+        when(roomRepository.findDTOsWithCapacityAtLeast(50)).thenReturn(List.of(largeRoom));
+
+        // Переговорная: 08:00-10:00, 11:00-12:00; конференц-зал: 08:00-13:00
+        when(roomBookingIndex.getBookings(eq(1L), any(), any())).thenReturn(List.of(
+                new BookingIntervalDTO(1L, 1L, base, base.plusHours(2)),
+                new BookingIntervalDTO(2L, 1L, base.plusHours(3), base.plusHours(4))));
+        when(roomBookingIndex.getBookings(eq(2L), any(), any())).thenReturn(List.of(
+                new BookingIntervalDTO(3L, 2L, base, base.plusHours(5))));
+    }
+
+    @Test
+    void findFreeSlots_ShouldReturnEarliestGapsAcrossRooms() {
+        List<FreeSlotDTO> slots = roomService.findFreeSlots(Duration.ofMinutes(30), base, base.plusHours(8), 0, 3);
+
+        assertEquals(3, slots.size());
+
+        // промежуток 10:01-10:59 в переговорной
+        assertEquals(1L, slots.get(0).getRoomId());
+        assertEquals(base.plusHours(2).plusMinutes(1), slots.get(0).getStartTime());
+        assertEquals(base.plusHours(2).plusMinutes(31), slots.get(0).getEndTime());
+        assertEquals(base.plusHours(3).minusMinutes(1), slots.get(0).getFreeUntil());
+
+        assertEquals(1L, slots.get(1).getRoomId());
+        assertEquals(base.plusHours(4).plusMinutes(1), slots.get(1).getStartTime());
+
+        assertEquals(2L, slots.get(2).getRoomId());
+        assertEquals(base.plusHours(5).plusMinutes(1), slots.get(2).getStartTime());
+        assertEquals(base.plusHours(8), slots.get(2).getFreeUntil());
+    }
+
+    @Test
+    void findFreeSlots_ShouldSkipGapsShorterThanDuration() {
+        List<FreeSlotDTO> slots = roomService.findFreeSlots(Duration.ofHours(1), base, base.plusHours(8), 0, 10);
+
+        assertEquals(2, slots.size());
+        assertEquals(base.plusHours(4).plusMinutes(1), slots.get(0).getStartTime());
+        assertEquals(base.plusHours(5).plusMinutes(1), slots.get(1).getStartTime());
+    }
+
+    @Test
+    void findFreeSlots_ShouldFilterByCapacity() {
+        List<FreeSlotDTO> slots = roomService.findFreeSlots(Duration.ofMinutes(30), base, base.plusHours(8), 50, 10);
+
+        assertEquals(1, slots.size());
+        assertEquals(2L, slots.get(0).getRoomId());
+    }
+
+    @Test
+    void findFreeSlots_HorizonShorterThanDuration_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> roomService.findFreeSlots(Duration.ofHours(2), base, base.plusHours(1), 0, 10));
+    }
+}
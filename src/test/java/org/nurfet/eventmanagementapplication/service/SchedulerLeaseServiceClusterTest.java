@@ -0,0 +1,123 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.nurfet.eventmanagementapplication.EventManagementApplication;
+import org.nurfet.eventmanagementapplication.PostgresIntegrationTest;
+import org.nurfet.eventmanagementapplication.service.SchedulerLeaseService.Partition;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.nurfet.eventmanagementapplication.PostgresIntegrationTest.POSTGRES;
+
+/**
+ * Несколько узлов приложения с общей БД: распределение работы по работающим узлам
+ * и аренда задачи одним узлом.
+ */
+public class SchedulerLeaseServiceClusterTest {
+
+    private static final int NODES = 3;
+
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @BeforeAll
+    static void beforeAll() {
+        String url = PostgresIntegrationTest.createDatabase();
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(new SpringApplicationBuilder(EventManagementApplication.class).run(
+                    "--spring.datasource.url=" + url,
+                    "--spring.datasource.username=" + POSTGRES.getUsername(),
+                    "--spring.datasource.password=" + POSTGRES.getPassword(),
+                    "--server.port=0",
+                    "--scheduling.enabled=false",
+                    "--scheduler.node-id=node-" + i,
+                    "--scheduler.lease-ttl=PT2S"));
+        }
+    }
+
+    @AfterAll
+    static void afterAll() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void heartbeat_ShouldSplitWorkAmongLiveNodes() {
+        List<SchedulerLeaseService> services = nodes.stream()
+                .map(node -> node.getBean(SchedulerLeaseService.class))
+                .toList();
+        services.forEach(SchedulerLeaseService::heartbeat);
+        services.forEach(SchedulerLeaseService::heartbeat);
+
+        assertEachIdOwnedOnce(services.stream().map(SchedulerLeaseService::partition).toList(), NODES);
+
+        // остановленный узел удаляет отметку, его работа переходит к остальным
+        nodes.get(NODES - 1).close();
+        List<SchedulerLeaseService> live = services.subList(0, NODES - 1);
+        live.forEach(SchedulerLeaseService::heartbeat);
+
+        assertEachIdOwnedOnce(live.stream().map(SchedulerLeaseService::partition).toList(), NODES - 1);
+    }
+
+    @Test
+    void tryAcquire_ShouldGrantLeaseToOneNodeAndFenceExpiredHolder() throws Exception {
+        SchedulerLeaseService first = nodes.get(0).getBean(SchedulerLeaseService.class);
+        SchedulerLeaseService second = nodes.get(1).getBean(SchedulerLeaseService.class);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Callable<OptionalLong>> attempts = List.of(
+                () -> first.tryAcquire("test-lease"), () -> second.tryAcquire("test-lease"));
+        List<OptionalLong> results = new ArrayList<>();
+        for (Future<OptionalLong> result : executor.invokeAll(attempts)) {
+            results.add(result.get());
+        }
+        executor.shutdown();
+
+        assertEquals(1, results.stream().filter(OptionalLong::isPresent).count());
+        boolean firstHolds = results.get(0).isPresent();
+        SchedulerLeaseService holder = firstHolds ? first : second;
+        SchedulerLeaseService other = firstHolds ? second : first;
+        long token = (firstHolds ? results.get(0) : results.get(1)).getAsLong();
+
+        // продление держателем сохраняет номер аренды
+        holder.renew("test-lease", token);
+        assertTrue(other.tryAcquire("test-lease").isEmpty());
+
+        Thread.sleep(2_500);
+
+        assertEquals(OptionalLong.of(token + 1), other.tryAcquire("test-lease"));
+        assertThrows(IllegalStateException.class, () -> holder.renew("test-lease", token));
+    }
+
+    private static void assertEachIdOwnedOnce(List<Partition> partitions, int count) {
+        Set<Integer> indexes = new HashSet<>();
+        for (Partition partition : partitions) {
+            assertEquals(count, partition.count());
+            indexes.add(partition.index());
+        }
+        assertEquals(count, indexes.size());
+
+        for (long id = 1; id <= 100; id++) {
+            long owners = 0;
+            for (Partition partition : partitions) {
+                if (partition.owns(id)) {
+                    owners++;
+                }
+            }
+            assertEquals(1, owners);
+        }
+    }
+}
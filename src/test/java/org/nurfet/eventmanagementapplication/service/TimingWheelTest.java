@@ -0,0 +1,73 @@
+package org.nurfet.eventmanagementapplication.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    private static final long TICK = 1_000;
+
+    @Test
+    void advance_ShouldFireTimersInTickOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 0);
+        wheel.schedule(3_500, "second");
+        wheel.schedule(1_200, "first");
+
+        assertTrue(wheel.advance(999).isEmpty());
+        assertEquals(List.of("first"), payloads(wheel.advance(1_000)));
+        assertEquals(List.of("second"), payloads(wheel.advance(5_000)));
+        assertTrue(wheel.advance(10_000).isEmpty());
+    }
+
+    @Test
+    void advance_TimerBeyondOneRevolution_ShouldWaitForItsRound() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 0);
+        // такты 2 и 10 попадают в одну ячейку
+        wheel.schedule(2_000, "near");
+        wheel.schedule(10_000, "far");
+
+        assertEquals(List.of("near"), payloads(wheel.advance(9_000)));
+        assertEquals(List.of("far"), payloads(wheel.advance(10_000)));
+    }
+
+    @Test
+    void advance_CancelledTimer_ShouldNotFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 0);
+        wheel.schedule(2_000, "cancelled").cancel();
+        wheel.schedule(2_000, "kept");
+
+        assertEquals(List.of("kept"), payloads(wheel.advance(2_000)));
+    }
+
+    @Test
+    void schedule_PastDeadline_ShouldFireOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 5_000);
+        wheel.schedule(1_000, "late");
+
+        assertEquals(List.of("late"), payloads(wheel.advance(5_000)));
+    }
+
+    @Test
+    void sizeFor_ShouldCoverHorizonInOneRevolution() {
+        // горизонт напоминаний по умолчанию: сутки до начала плюс час подгрузки, такт 10 секунд
+        assertEquals(9_001, TimingWheel.sizeFor(Duration.ofHours(25).toMillis(), Duration.ofSeconds(10).toMillis()));
+        assertEquals(4, TimingWheel.sizeFor(2_500, TICK));
+
+        // таймер на краю горизонта не делит ячейку с текущим тактом
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, TimingWheel.sizeFor(8_000, TICK), 0);
+        wheel.schedule(0, "now");
+        wheel.schedule(8_000, "edge");
+
+        assertEquals(List.of("now"), payloads(wheel.advance(0)));
+        assertEquals(List.of("edge"), payloads(wheel.advance(8_000)));
+    }
+
+    private static List<String> payloads(List<TimingWheel.Timer<String>> timers) {
+        return timers.stream().map(TimingWheel.Timer::payload).toList();
+    }
+}